@@ -73,7 +73,8 @@ public class CFGBuilderTest {
 	public static Collection<Object[]> data() {
 		return Arrays.asList(
 				new Object[][] { { "ForWithIfToEndLoopSample", 0 }, { "IfElseIfSample", 0 }, { "LabelsSample", 0 }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-						{ "SwitchSample", 0 }, { "WhileLoopsSample", 2 }, { "TryCatchThrowSample", 0 }, }); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						{ "SwitchSample", 0 }, { "WhileLoopsSample", 2 }, { "TryCatchThrowSample", 0 }, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						{ "SingleStatementBodiesSample", 0 }, }); //$NON-NLS-1$
 	}
 
 	@Test
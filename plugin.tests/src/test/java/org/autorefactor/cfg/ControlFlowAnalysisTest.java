@@ -0,0 +1,145 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.autorefactor.jdt.internal.corext.dom.ApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptionsImpl;
+import org.autorefactor.jdt.internal.corext.dom.Release;
+import org.autorefactor.refactoring.rules.JavaCoreHelper;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.core.dom.WhileStatement;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ControlFlowAnalysisTest {
+	private static final String SAMPLE= "package org.autorefactor.cfg;\n" //$NON-NLS-1$
+			+ "public class ControlFlowSample {\n" //$NON-NLS-1$
+			+ "    public void sample(boolean b1, boolean b2) {\n" //$NON-NLS-1$
+			+ "        int i= 0;\n" //$NON-NLS-1$
+			+ "        if (b1) {\n" //$NON-NLS-1$
+			+ "            i= 1;\n" //$NON-NLS-1$
+			+ "        }\n" //$NON-NLS-1$
+			+ "        if (b2) {\n" //$NON-NLS-1$
+			+ "            i= 2;\n" //$NON-NLS-1$
+			+ "        }\n" //$NON-NLS-1$
+			+ "        while (b1) {\n" //$NON-NLS-1$
+			+ "            i++;\n" //$NON-NLS-1$
+			+ "        }\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "}\n"; //$NON-NLS-1$
+
+	private ControlFlowAnalysis analysis;
+	private CFGBasicBlock firstIf;
+	private CFGBasicBlock firstThen;
+	private CFGBasicBlock secondIf;
+	private CFGBasicBlock loopCondition;
+	private CFGBasicBlock loopBody;
+
+	@Before
+	public void setUp() throws Exception {
+		final IPackageFragment packageFragment= JavaCoreHelper.getPackageFragment("org.autorefactor.cfg"); //$NON-NLS-1$
+		final ICompilationUnit cu= packageFragment.createCompilationUnit("ControlFlowSample.java", SAMPLE, true, null); //$NON-NLS-1$
+		cu.getBuffer().setContents(SAMPLE);
+		cu.save(null, true);
+
+		final JavaProjectOptionsImpl options= new JavaProjectOptionsImpl();
+		options.setJavaSERelease(Release.javaSE("1.8")); //$NON-NLS-1$
+		options.setTabSize(4);
+		@SuppressWarnings("deprecation")
+		final ASTParser parser= ASTParser.newParser(AST.JLS8);
+		final Method m= ApplyRefactoringsJob.class.getDeclaredMethod("resetParser", ICompilationUnit.class, //$NON-NLS-1$
+				ASTParser.class, JavaProjectOptions.class);
+		m.setAccessible(true);
+		m.invoke(null, cu, parser, options);
+
+		final CompilationUnit astRoot= (CompilationUnit) parser.createAST(null);
+		final List<CFGBasicBlock> entryBlocks= new CFGBuilder(SAMPLE, options).buildCFG(astRoot);
+		analysis= new ControlFlowAnalysis(entryBlocks.get(0));
+
+		final MethodDeclaration method= ((TypeDeclaration) astRoot.types().get(0)).getMethods()[0];
+		final List<Statement> statements= method.getBody().statements();
+		final IfStatement firstIfStatement= (IfStatement) statements.get(1);
+		final WhileStatement whileStatement= (WhileStatement) statements.get(3);
+		firstIf= blockOf(firstIfStatement);
+		firstThen= blockOf((ASTNode) ((Block) firstIfStatement.getThenStatement()).statements().get(0));
+		secondIf= blockOf(statements.get(2));
+		loopCondition= blockOf(whileStatement.getExpression());
+		loopBody= blockOf((ASTNode) ((Block) whileStatement.getBody()).statements().get(0));
+	}
+
+	@Test
+	public void testDominators() throws Exception {
+		assertTrue(analysis.dominates(firstIf, secondIf));
+		assertFalse(analysis.dominates(firstThen, secondIf));
+		assertSame(firstIf, analysis.getImmediateDominator(secondIf));
+		assertSame(secondIf, analysis.getImmediatePostDominator(firstIf));
+		assertTrue(analysis.postDominates(loopCondition, firstThen));
+		assertFalse(analysis.postDominates(loopBody, loopCondition));
+	}
+
+	@Test
+	public void testReachability() throws Exception {
+		assertTrue(analysis.isInLoop(loopBody));
+		assertFalse(analysis.isInLoop(firstThen));
+		assertTrue(analysis.isReachable(firstThen, loopBody));
+		assertFalse(analysis.isReachable(loopBody, firstThen));
+	}
+
+	@Test
+	public void testGetPaths() throws Exception {
+		assertEquals(4, new CodePathCollector().getPaths(analysis.getBlocks().get(0)).size());
+		assertEquals(3, new CodePathCollector().getPaths(analysis.getBlocks().get(0), 3).size());
+	}
+
+	private CFGBasicBlock blockOf(final ASTNode node) {
+		for (CFGBasicBlock block : analysis.getBlocks()) {
+			if (block.getNode() == node) {
+				return block;
+			}
+		}
+
+		throw new AssertionError("No block for " + node); //$NON-NLS-1$
+	}
+}
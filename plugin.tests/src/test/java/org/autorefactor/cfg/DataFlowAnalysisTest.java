@@ -0,0 +1,130 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.autorefactor.jdt.internal.corext.dom.ApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptionsImpl;
+import org.autorefactor.jdt.internal.corext.dom.Release;
+import org.autorefactor.refactoring.rules.JavaCoreHelper;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DataFlowAnalysisTest {
+	private static final String SAMPLE= "package org.autorefactor.cfg;\n" //$NON-NLS-1$
+			+ "public class DataFlowSample {\n" //$NON-NLS-1$
+			+ "    public int sample(boolean b, int[] array) {\n" //$NON-NLS-1$
+			+ "        int i= 0;\n" //$NON-NLS-1$
+			+ "        int j= 1;\n" //$NON-NLS-1$
+			+ "        if (b) {\n" //$NON-NLS-1$
+			+ "            i= 2;\n" //$NON-NLS-1$
+			+ "        }\n" //$NON-NLS-1$
+			+ "        j= 3;\n" //$NON-NLS-1$
+			+ "        while (b) {\n" //$NON-NLS-1$
+			+ "            j+= array.length;\n" //$NON-NLS-1$
+			+ "        }\n" //$NON-NLS-1$
+			+ "        return i;\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "}\n"; //$NON-NLS-1$
+
+	private CompilationUnit astRoot;
+	private DataFlowAnalysis analysis;
+
+	@Before
+	public void setUp() throws Exception {
+		final IPackageFragment packageFragment= JavaCoreHelper.getPackageFragment("org.autorefactor.cfg"); //$NON-NLS-1$
+		final ICompilationUnit cu= packageFragment.createCompilationUnit("DataFlowSample.java", SAMPLE, true, null); //$NON-NLS-1$
+		cu.getBuffer().setContents(SAMPLE);
+		cu.save(null, true);
+
+		final JavaProjectOptionsImpl options= new JavaProjectOptionsImpl();
+		options.setJavaSERelease(Release.javaSE("1.8")); //$NON-NLS-1$
+		options.setTabSize(4);
+		@SuppressWarnings("deprecation")
+		final ASTParser parser= ASTParser.newParser(AST.JLS8);
+		final Method m= ApplyRefactoringsJob.class.getDeclaredMethod("resetParser", ICompilationUnit.class, //$NON-NLS-1$
+				ASTParser.class, JavaProjectOptions.class);
+		m.setAccessible(true);
+		m.invoke(null, cu, parser, options);
+
+		astRoot= (CompilationUnit) parser.createAST(null);
+		final List<CFGBasicBlock> entryBlocks= new CFGBuilder(SAMPLE, options).buildCFG(astRoot);
+		analysis= new DataFlowAnalysis(entryBlocks.get(0));
+	}
+
+	@Test
+	public void testIsReadAfter() throws Exception {
+		assertTrue("i= 0 is returned when b is false", analysis.isReadAfter(name("i", 0))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse("j= 1 is always overwritten by j= 3", analysis.isReadAfter(name("j", 0))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue("j= 3 is read in the loop", analysis.isReadAfter(name("j", 1))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertTrue("array is a parameter read in the loop", analysis.isReadAfter(name("array", 0))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testGetReachingDefinitions() throws Exception {
+		assertEquals(Arrays.asList(name("i", 0), name("i", 1)), analysis.getReachingDefinitions(name("i", 2))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(Arrays.asList(name("j", 1), name("j", 2)), analysis.getReachingDefinitions(name("j", 2))); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testGetReads() throws Exception {
+		assertEquals(Arrays.asList(name("i", 2)), analysis.getReads(name("i", 1))); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(Arrays.asList(), analysis.getReads(name("j", 0))); //$NON-NLS-1$
+		assertEquals(Arrays.asList(name("j", 2)), analysis.getReads(name("j", 2))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private SimpleName name(final String identifier, final int occurrence) {
+		final List<SimpleName> names= new ArrayList<>();
+		astRoot.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(final SimpleName node) {
+				if (identifier.equals(node.getIdentifier())) {
+					names.add(node);
+				}
+
+				return true;
+			}
+		});
+
+		return names.get(occurrence);
+	}
+}
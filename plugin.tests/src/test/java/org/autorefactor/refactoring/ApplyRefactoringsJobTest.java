@@ -0,0 +1,249 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.refactoring;
+
+import static org.autorefactor.test.TestHelper.TEST_ENVIRONMENT;
+import static org.autorefactor.test.TestHelper.newJavaProjectOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.autorefactor.environment.Environment;
+import org.autorefactor.environment.JobManager;
+import org.autorefactor.environment.Logger;
+import org.autorefactor.jdt.internal.corext.dom.ApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
+import org.autorefactor.jdt.internal.corext.dom.Profiler;
+import org.autorefactor.jdt.internal.corext.dom.RefactoringRule;
+import org.autorefactor.jdt.internal.corext.dom.RefactoringUnit;
+import org.autorefactor.jdt.internal.corext.dom.Release;
+import org.autorefactor.jdt.internal.ui.fix.AbstractCleanUpRule;
+import org.autorefactor.jdt.internal.ui.fix.AggregateASTVisitor;
+import org.autorefactor.refactoring.rules.JavaCoreHelper;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.Test;
+
+public class ApplyRefactoringsJobTest {
+	private static final String PACKAGE_NAME= "org.autorefactor.refactoring.job"; //$NON-NLS-1$
+
+	/** Keeps the logged messages, the profiler report being the only one expected. */
+	private static final class RecordingLogger implements Logger {
+		private final List<String> messages= new ArrayList<>();
+
+		@Override
+		public void error(final String message) {
+			messages.add(message);
+		}
+
+		@Override
+		public void error(final String message, final Exception e) {
+			messages.add(message);
+		}
+
+		@Override
+		public void warn(final String message) {
+			messages.add(message);
+		}
+
+		@Override
+		public void info(final String message) {
+			messages.add(message);
+		}
+	}
+
+	private static final class NoJobManager implements JobManager {
+		@Override
+		public void register(final Job job) {
+		}
+
+		@Override
+		public void unregister(final Job job) {
+		}
+	}
+
+	/** Records the ASTs it visits. */
+	private static final class RecordingRule extends AbstractCleanUpRule {
+		private final List<CompilationUnit> visitedAstRoots= new ArrayList<>();
+
+		@Override
+		public String getName() {
+			return getClass().getSimpleName();
+		}
+
+		@Override
+		public String getDescription() {
+			return getName();
+		}
+
+		@Override
+		public String getReason() {
+			return getName();
+		}
+
+		@Override
+		public boolean visit(final CompilationUnit node) {
+			visitedAstRoots.add(node);
+			return true;
+		}
+	}
+
+	@Test
+	public void testProfilerReportsWhenMoreWorkersThanBatches() throws Exception {
+		RecordingLogger logger= new RecordingLogger();
+		Environment environment= new Environment(TEST_ENVIRONMENT.getEventLoop(), new NoJobManager(), logger, null);
+		Queue<RefactoringUnit> queue= new ConcurrentLinkedQueue<>();
+		queue.add(new RefactoringUnit(createCompilationUnit("ProfiledSample.java", "class ProfiledSample {}\n"), //$NON-NLS-1$ //$NON-NLS-2$
+				newJavaProjectOptions(Release.javaSE("1.8.0"), 4))); //$NON-NLS-1$
+
+		int nbWorkers= 3;
+		Profiler profiler= newProfiler(nbWorkers);
+		List<Job> workers= new ArrayList<>();
+		for (int i= 0; i < nbWorkers; i++) {
+			workers.add(newWorker(queue, Collections.<RefactoringRule>emptyList(), environment, profiler, nbWorkers));
+		}
+
+		// The first worker takes the only unit, the other ones find the queue empty
+		for (int i= 0; i < nbWorkers - 1; i++) {
+			assertTrue(run(workers.get(i)).isOK());
+			assertEquals(logger.messages.toString(), 0, logger.messages.size());
+		}
+
+		assertTrue(run(workers.get(nbWorkers - 1)).isOK());
+		assertEquals(logger.messages.toString(), 1, logger.messages.size());
+		String report= logger.messages.get(0);
+		assertTrue(report, report.startsWith("AutoRefactor profile: 1 files") //$NON-NLS-1$
+				|| report.equals("Cannot write the profile of the run")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testBatchParsedAstDroppedWhenSourceChanged() throws Exception {
+		JavaProjectOptions options= newJavaProjectOptions(Release.javaSE("1.8.0"), 4); //$NON-NLS-1$
+		ICompilationUnit unchangedCu= createCompilationUnit("UnchangedSample.java", "class UnchangedSample {}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		ICompilationUnit changedCu= createCompilationUnit("ChangedSample.java", "class ChangedSample {}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		RecordingRule rule= new RecordingRule();
+		Job worker= newWorker(new ConcurrentLinkedQueue<RefactoringUnit>(), Arrays.<RefactoringRule>asList(rule),
+				TEST_ENVIRONMENT, null, 1);
+
+		Map<ICompilationUnit, ?> parsedUnits= parseBatch(worker,
+				Arrays.asList(new RefactoringUnit(unchangedCu, options), new RefactoringUnit(changedCu, options)));
+		assertEquals(2, parsedUnits.size());
+		// The file is modified between the batch parsing and its first pass
+		createCompilationUnit("ChangedSample.java", "class ChangedSample { int i; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		applyRefactoring(worker, unchangedCu, parsedUnits.get(unchangedCu), rule, options);
+		assertEquals(1, rule.visitedAstRoots.size());
+		assertSame(getAstRoot(parsedUnits.get(unchangedCu)), rule.visitedAstRoots.get(0));
+
+		applyRefactoring(worker, changedCu, parsedUnits.get(changedCu), rule, options);
+		assertEquals(2, rule.visitedAstRoots.size());
+		CompilationUnit changedAstRoot= rule.visitedAstRoots.get(1);
+		assertNotSame(getAstRoot(parsedUnits.get(changedCu)), changedAstRoot);
+		assertEquals(1, ((TypeDeclaration) changedAstRoot.types().get(0)).getFields().length);
+	}
+
+	static ICompilationUnit createCompilationUnit(final String fileName, final String source) throws Exception {
+		IPackageFragment packageFragment= JavaCoreHelper.getPackageFragment(PACKAGE_NAME);
+		ICompilationUnit cu= packageFragment.createCompilationUnit(fileName, source, true, null);
+		cu.getBuffer().setContents(source);
+		cu.save(null, true);
+		return cu;
+	}
+
+	private static Profiler newProfiler(final int nbWorkers) throws Exception {
+		Constructor<Profiler> constructor= Profiler.class.getDeclaredConstructor(int.class);
+		constructor.setAccessible(true);
+		return constructor.newInstance(nbWorkers);
+	}
+
+	private static Job newWorker(final Queue<RefactoringUnit> queue, final List<RefactoringRule> rules,
+			final Environment environment, final Profiler profiler, final int nbWorkers) throws Exception {
+		for (Constructor<?> constructor : ApplyRefactoringsJob.class.getDeclaredConstructors()) {
+			if (constructor.getParameterTypes().length == 6) {
+				constructor.setAccessible(true);
+				return (Job) constructor.newInstance(queue, rules, environment, null, profiler, nbWorkers);
+			}
+		}
+
+		throw new AssertionError("No constructor taking a profiler"); //$NON-NLS-1$
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<ICompilationUnit, ?> parseBatch(final Job worker, final List<RefactoringUnit> batch)
+			throws Exception {
+		Method parseBatch= ApplyRefactoringsJob.class.getDeclaredMethod("parseBatch", List.class); //$NON-NLS-1$
+		parseBatch.setAccessible(true);
+		return (Map<ICompilationUnit, ?>) parseBatch.invoke(worker, batch);
+	}
+
+	/** Runs the fixpoint loop starting from the AST parsed ahead of time. */
+	private static void applyRefactoring(final Job worker, final ICompilationUnit cu, final Object parsedUnit,
+			final RecordingRule rule, final JavaProjectOptions options) throws Exception {
+		for (Method method : ApplyRefactoringsJob.class.getDeclaredMethods()) {
+			Class<?>[] parameterTypes= method.getParameterTypes();
+			if ("applyRefactoring".equals(method.getName()) && parameterTypes.length == 6 //$NON-NLS-1$
+					&& ICompilationUnit.class.equals(parameterTypes[0])) {
+				method.setAccessible(true);
+				method.invoke(worker, cu, parsedUnit, new AggregateASTVisitor(Arrays.<RefactoringRule>asList(rule)),
+						options, SubMonitor.convert(new NullProgressMonitor()), true);
+				return;
+			}
+		}
+
+		throw new AssertionError("No method taking a parsed unit"); //$NON-NLS-1$
+	}
+
+	private static CompilationUnit getAstRoot(final Object parsedUnit) throws Exception {
+		Field astRoot= parsedUnit.getClass().getDeclaredField("astRoot"); //$NON-NLS-1$
+		astRoot.setAccessible(true);
+		return (CompilationUnit) astRoot.get(parsedUnit);
+	}
+
+	private static IStatus run(final Job job) throws Exception {
+		Method run= ApplyRefactoringsJob.class.getDeclaredMethod("run", IProgressMonitor.class); //$NON-NLS-1$
+		run.setAccessible(true);
+		return (IStatus) run.invoke(job, new NullProgressMonitor());
+	}
+}
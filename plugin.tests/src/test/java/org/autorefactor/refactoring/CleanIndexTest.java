@@ -0,0 +1,115 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.refactoring;
+
+import static org.autorefactor.refactoring.ApplyRefactoringsJobTest.createCompilationUnit;
+import static org.autorefactor.test.TestHelper.TEST_ENVIRONMENT;
+import static org.autorefactor.test.TestHelper.newJavaProjectOptions;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+
+import org.autorefactor.environment.Logger;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
+import org.autorefactor.jdt.internal.corext.dom.RefactoringRule;
+import org.autorefactor.jdt.internal.corext.dom.Release;
+import org.autorefactor.jdt.internal.ui.fix.AllCleanUpRules;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.junit.Test;
+
+public class CleanIndexTest {
+	private static final String CLEAN_INDEX_CLASS_NAME= "org.autorefactor.jdt.internal.corext.dom.CleanIndex"; //$NON-NLS-1$
+
+	private static final JavaProjectOptions JAVA_8_OPTIONS= newJavaProjectOptions(Release.javaSE("1.8.0"), 4); //$NON-NLS-1$
+
+	@Test
+	public void testCleanUnitSkippedUntilItsContentChanges() throws Exception {
+		ICompilationUnit cu= createCompilationUnit("CleanSample.java", "class CleanSample {}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		Object cleanIndex= newCleanIndex(AllCleanUpRules.getAllCleanUpRules());
+		assertFalse(isClean(cleanIndex, cu, JAVA_8_OPTIONS));
+
+		recordClean(cleanIndex, cu, JAVA_8_OPTIONS);
+		assertTrue(isClean(cleanIndex, cu, JAVA_8_OPTIONS));
+
+		createCompilationUnit("CleanSample.java", "class CleanSample { int i; }\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(isClean(cleanIndex, cu, JAVA_8_OPTIONS));
+	}
+
+	@Test
+	public void testCleanUnitDirtyWithOtherOptions() throws Exception {
+		ICompilationUnit cu= createCompilationUnit("OptionsSample.java", "class OptionsSample {}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		Object cleanIndex= newCleanIndex(AllCleanUpRules.getAllCleanUpRules());
+		recordClean(cleanIndex, cu, JAVA_8_OPTIONS);
+
+		assertTrue(isClean(cleanIndex, cu, JAVA_8_OPTIONS));
+		assertFalse(isClean(cleanIndex, cu, newJavaProjectOptions(Release.javaSE("1.7.0"), 4))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCleanUnitDirtyWithOtherRules() throws Exception {
+		ICompilationUnit cu= createCompilationUnit("RulesSample.java", "class RulesSample {}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		Object cleanIndex= newCleanIndex(AllCleanUpRules.getAllCleanUpRules());
+		recordClean(cleanIndex, cu, JAVA_8_OPTIONS);
+		save(cleanIndex);
+
+		// The next runs load the saved index, with their own options
+		JavaProjectOptions nextRunOptions= newJavaProjectOptions(Release.javaSE("1.8.0"), 4); //$NON-NLS-1$
+		assertTrue(isClean(newCleanIndex(AllCleanUpRules.getAllCleanUpRules()), cu, nextRunOptions));
+		assertFalse(isClean(newCleanIndex(Collections.<RefactoringRule>emptyList()), cu, nextRunOptions));
+	}
+
+	private static Object newCleanIndex(final List<RefactoringRule> refactoringRules) throws Exception {
+		Constructor<?> constructor= Class.forName(CLEAN_INDEX_CLASS_NAME).getDeclaredConstructor(List.class,
+				Logger.class);
+		constructor.setAccessible(true);
+		return constructor.newInstance(refactoringRules, TEST_ENVIRONMENT.getLogger());
+	}
+
+	private static boolean isClean(final Object cleanIndex, final ICompilationUnit cu, final JavaProjectOptions options)
+			throws Exception {
+		return (Boolean) getMethod("isClean", ICompilationUnit.class, JavaProjectOptions.class).invoke(cleanIndex, cu, //$NON-NLS-1$
+				options);
+	}
+
+	private static void recordClean(final Object cleanIndex, final ICompilationUnit cu, final JavaProjectOptions options)
+			throws Exception {
+		getMethod("recordClean", ICompilationUnit.class, JavaProjectOptions.class).invoke(cleanIndex, cu, options); //$NON-NLS-1$
+	}
+
+	private static void save(final Object cleanIndex) throws Exception {
+		getMethod("save").invoke(cleanIndex); //$NON-NLS-1$
+	}
+
+	private static Method getMethod(final String name, final Class<?>... parameterTypes) throws Exception {
+		Method method= Class.forName(CLEAN_INDEX_CLASS_NAME).getDeclaredMethod(name, parameterTypes);
+		method.setAccessible(true);
+		return method;
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.refactoring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.autorefactor.jdt.internal.corext.dom.CommentIndex;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.Comment;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.junit.Test;
+
+public class CommentIndexTest {
+	private static final String BLOCK_COMMENT= "/* block */"; //$NON-NLS-1$
+	private static final String LINE_COMMENT= "// line"; //$NON-NLS-1$
+	private static final String SOURCE= "class Sample {\n" //$NON-NLS-1$
+			+ "    " + BLOCK_COMMENT + " int i; " + LINE_COMMENT + "\n" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			+ "}\n"; //$NON-NLS-1$
+
+	private static final int BLOCK_START= SOURCE.indexOf(BLOCK_COMMENT);
+	private static final int BLOCK_END= BLOCK_START + BLOCK_COMMENT.length();
+	private static final int LINE_START= SOURCE.indexOf(LINE_COMMENT);
+	private static final int LINE_END= LINE_START + LINE_COMMENT.length();
+
+	@Test
+	public void isInComment() {
+		CommentIndex index= new CommentIndex(getComments());
+
+		assertFalse(index.isInComment(BLOCK_START - 1));
+		assertTrue(index.isInComment(BLOCK_START));
+		assertTrue(index.isInComment(BLOCK_START + 1));
+		assertTrue(index.isInComment(BLOCK_END));
+		assertFalse(index.isInComment(BLOCK_END + 1));
+		assertTrue(index.isInComment(LINE_END));
+		assertFalse(index.isInComment(SOURCE.length() - 1));
+	}
+
+	@Test
+	public void getCommentsInRange() {
+		List<Comment> comments= getComments();
+		Comment blockComment= comments.get(0);
+		Comment lineComment= comments.get(1);
+		CommentIndex index= new CommentIndex(comments);
+
+		assertEquals(comments, index.getCommentsInRange(0, SOURCE.length()));
+		// The range bounds are the comment bounds
+		assertEquals(Collections.singletonList(blockComment), index.getCommentsInRange(BLOCK_START, BLOCK_END));
+		assertEquals(Arrays.asList(blockComment, lineComment), index.getCommentsInRange(BLOCK_START, LINE_END));
+		assertEquals(Collections.singletonList(lineComment), index.getCommentsInRange(BLOCK_END, LINE_END));
+		// The range cuts a comment in half
+		assertEquals(Collections.emptyList(), index.getCommentsInRange(BLOCK_START + 1, BLOCK_END));
+		assertEquals(Collections.emptyList(), index.getCommentsInRange(BLOCK_START, BLOCK_END - 1));
+		assertEquals(Collections.singletonList(lineComment), index.getCommentsInRange(BLOCK_START + 1, LINE_END));
+		assertEquals(Collections.emptyList(), index.getCommentsInRange(BLOCK_END, LINE_START));
+	}
+
+	@Test
+	public void emptyCommentList() {
+		CommentIndex index= new CommentIndex(Collections.<Comment>emptyList());
+
+		assertFalse(index.isInComment(0));
+		assertEquals(Collections.emptyList(), index.getCommentsInRange(0, SOURCE.length()));
+	}
+
+	private static List<Comment> getComments() {
+		@SuppressWarnings("deprecation")
+		ASTParser parser= ASTParser.newParser(AST.JLS8);
+		parser.setSource(SOURCE.toCharArray());
+		CompilationUnit astRoot= (CompilationUnit) parser.createAST(null);
+		List<Comment> comments= astRoot.getCommentList();
+		assertEquals(2, comments.size());
+		return comments;
+	}
+}
@@ -0,0 +1,162 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.refactoring.rules;
+
+import static org.autorefactor.test.TestHelper.newJavaProjectOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.autorefactor.jdt.internal.corext.dom.ASTSemanticHasher;
+import org.autorefactor.jdt.internal.corext.dom.ASTSemanticMatcher;
+import org.autorefactor.jdt.internal.corext.dom.ApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
+import org.autorefactor.jdt.internal.corext.dom.Release;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/** Checks that the code matching on semantic has the same hash. */
+public class ASTSemanticHasherTest {
+	private static final String SOURCE= "package org.autorefactor.refactoring.rules.hasher;\n" //$NON-NLS-1$
+			+ "public class Sample {\n" //$NON-NLS-1$
+			+ "    public void increment(int i) {\n" //$NON-NLS-1$
+			+ "        i++;\n" //$NON-NLS-1$
+			+ "        ++i;\n" //$NON-NLS-1$
+			+ "        i += 1;\n" //$NON-NLS-1$
+			+ "        i = i + 1;\n" //$NON-NLS-1$
+			+ "        i = 1 + i;\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "    public void commute(int i, int j) {\n" //$NON-NLS-1$
+			+ "        j = i + 2;\n" //$NON-NLS-1$
+			+ "        j = 2 + i;\n" //$NON-NLS-1$
+			+ "        j = i * 2;\n" //$NON-NLS-1$
+			+ "        j = 2 * i;\n" //$NON-NLS-1$
+			+ "        j = i & 2;\n" //$NON-NLS-1$
+			+ "        j = 2 & i;\n" //$NON-NLS-1$
+			+ "        j = i | 2;\n" //$NON-NLS-1$
+			+ "        j = 2 | i;\n" //$NON-NLS-1$
+			+ "        j = i ^ 2;\n" //$NON-NLS-1$
+			+ "        j = 2 ^ i;\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "    public void invertBranches(boolean c, int i, int j) {\n" //$NON-NLS-1$
+			+ "        if (c) { i++; } else { j++; }\n" //$NON-NLS-1$
+			+ "        if (!c) { j++; } else { i++; }\n" //$NON-NLS-1$
+			+ "        j = c ? i : 2;\n" //$NON-NLS-1$
+			+ "        j = !c ? 2 : i;\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "    public void unwrapBlock(boolean c, int i) {\n" //$NON-NLS-1$
+			+ "        if (c) { i++; }\n" //$NON-NLS-1$
+			+ "        if (c) i++;\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "    public void negate(boolean c, int i, int j) {\n" //$NON-NLS-1$
+			+ "        c = !(i < j);\n" //$NON-NLS-1$
+			+ "        c = i >= j;\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "}\n"; //$NON-NLS-1$
+
+	private static TypeDeclaration type;
+
+	@BeforeClass
+	public static void parseSample() throws Exception {
+		IPackageFragment packageFragment= JavaCoreHelper.getPackageFragment("org.autorefactor.refactoring.rules.hasher"); //$NON-NLS-1$
+		ICompilationUnit cu= packageFragment.createCompilationUnit("Sample.java", SOURCE, true, null); //$NON-NLS-1$
+		cu.getBuffer().setContents(SOURCE);
+		cu.save(null, true);
+
+		@SuppressWarnings("deprecation")
+		ASTParser parser= ASTParser.newParser(AST.JLS8);
+		Method resetParser= ApplyRefactoringsJob.class.getDeclaredMethod("resetParser", ICompilationUnit.class, //$NON-NLS-1$
+				ASTParser.class, JavaProjectOptions.class);
+		resetParser.setAccessible(true);
+		resetParser.invoke(null, cu, parser, newJavaProjectOptions(Release.javaSE("1.8.0"), 4)); //$NON-NLS-1$
+		CompilationUnit astRoot= (CompilationUnit) parser.createAST(null);
+		type= (TypeDeclaration) astRoot.types().get(0);
+	}
+
+	@Test
+	public void testIncrements() throws Exception {
+		List<Statement> statements= getStatements("increment"); //$NON-NLS-1$
+		assertMatchingAndSameHash(statements.get(0), statements.get(1));
+		assertMatchingAndSameHash(statements.get(0), statements.get(3));
+		assertMatchingAndSameHash(statements.get(0), statements.get(4));
+		// The matcher does not recognize the compound assignment yet, the hash must not prevent it
+		assertEquals(ASTSemanticHasher.hash(statements.get(0)), ASTSemanticHasher.hash(statements.get(2)));
+	}
+
+	@Test
+	public void testCommutativeOperands() throws Exception {
+		List<Statement> statements= getStatements("commute"); //$NON-NLS-1$
+		for (int i= 0; i < statements.size(); i+= 2) {
+			assertMatchingAndSameHash(statements.get(i), statements.get(i + 1));
+		}
+	}
+
+	@Test
+	public void testInvertedBranches() throws Exception {
+		List<Statement> statements= getStatements("invertBranches"); //$NON-NLS-1$
+		assertMatchingAndSameHash(statements.get(0), statements.get(1));
+		assertMatchingAndSameHash(statements.get(2), statements.get(3));
+	}
+
+	@Test
+	public void testSingleStatementBlock() throws Exception {
+		List<Statement> statements= getStatements("unwrapBlock"); //$NON-NLS-1$
+		assertMatchingAndSameHash(statements.get(0), statements.get(1));
+	}
+
+	@Test
+	public void testNegatedBoolean() throws Exception {
+		List<Statement> statements= getStatements("negate"); //$NON-NLS-1$
+		assertMatchingAndSameHash(statements.get(0), statements.get(1));
+	}
+
+	private static List<Statement> getStatements(final String methodName) {
+		for (MethodDeclaration method : type.getMethods()) {
+			if (methodName.equals(method.getName().getIdentifier())) {
+				return method.getBody().statements();
+			}
+		}
+
+		throw new AssertionError("No method " + methodName); //$NON-NLS-1$
+	}
+
+	private static void assertMatchingAndSameHash(final Statement statement, final Statement otherStatement) {
+		assertTrue(statement + " should match " + otherStatement, //$NON-NLS-1$
+				ASTSemanticMatcher.INSTANCE.safeSubtreeMatch(statement, otherStatement));
+		assertEquals(statement + " and " + otherStatement + " should have the same hash", //$NON-NLS-1$ //$NON-NLS-2$
+				ASTSemanticHasher.hash(statement), ASTSemanticHasher.hash(otherStatement));
+	}
+}
@@ -0,0 +1,319 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.refactoring.rules;
+
+import static org.autorefactor.test.TestHelper.TEST_ENVIRONMENT;
+import static org.autorefactor.test.TestHelper.newJavaProjectOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+
+import org.autorefactor.environment.Environment;
+import org.autorefactor.jdt.internal.corext.dom.ApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
+import org.autorefactor.jdt.internal.corext.dom.RefactoringRule;
+import org.autorefactor.jdt.internal.corext.dom.Release;
+import org.autorefactor.jdt.internal.corext.refactoring.structure.CompilationUnitRewrite;
+import org.autorefactor.jdt.internal.ui.fix.AbstractCleanUpRule;
+import org.autorefactor.jdt.internal.ui.fix.AggregateASTVisitor;
+import org.autorefactor.jdt.internal.ui.fix.AllCleanUpRules;
+import org.autorefactor.jdt.internal.ui.fix.MethodSignatureRegistry;
+import org.autorefactor.jdt.internal.ui.fix.MethodSignatureRule;
+import org.autorefactor.preferences.Preferences;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.SwitchStatement;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jface.text.Document;
+import org.eclipse.jface.text.IDocument;
+import org.junit.Test;
+
+public class AggregateASTVisitorTest {
+	private static final String SOURCE= "package org.autorefactor.refactoring.rules.aggregate;\n" //$NON-NLS-1$
+			+ "public class Sample {\n" //$NON-NLS-1$
+			+ "    public void run(int i) {\n" //$NON-NLS-1$
+			+ "        switch (i) {\n" //$NON-NLS-1$
+			+ "        case 0:\n" //$NON-NLS-1$
+			+ "            toString();\n" //$NON-NLS-1$
+			+ "        }\n" //$NON-NLS-1$
+			+ "    }\n" //$NON-NLS-1$
+			+ "}\n"; //$NON-NLS-1$
+
+	private abstract static class CountingRule extends AbstractCleanUpRule {
+		private int nbVisits;
+
+		@Override
+		public String getName() {
+			return getClass().getSimpleName();
+		}
+
+		@Override
+		public String getDescription() {
+			return getName();
+		}
+
+		@Override
+		public String getReason() {
+			return getName();
+		}
+
+		protected boolean count() {
+			nbVisits++;
+			return true;
+		}
+	}
+
+	private static final class SwitchRule extends CountingRule {
+		@Override
+		public boolean visit(final SwitchStatement node) {
+			return count();
+		}
+	}
+
+	private static final class MethodInvocationRule extends CountingRule {
+		@Override
+		public boolean visit(final MethodInvocation node) {
+			return count();
+		}
+	}
+
+	/** Only visits the invocations of the registered method, if any. */
+	private static final class RegisteringRule extends CountingRule implements MethodSignatureRule {
+		private final String[] methodNames;
+
+		private RegisteringRule(final String... methodNames) {
+			this.methodNames= methodNames;
+		}
+
+		@Override
+		public void registerMethodSignatures(final MethodSignatureRegistry registry) {
+			for (String methodName : methodNames) {
+				registry.register(this, Object.class.getCanonicalName(), methodName);
+			}
+		}
+
+		@Override
+		public boolean visit(final MethodInvocation node) {
+			return count();
+		}
+	}
+
+	/** Keeps a state for the type, so it can not visit a method body alone. */
+	private static final class TypeStateRule extends CountingRule {
+		@Override
+		public boolean visit(final TypeDeclaration node) {
+			return count();
+		}
+
+		@Override
+		public boolean visit(final MethodInvocation node) {
+			return count();
+		}
+	}
+
+	private static final class IncrementalPreferences implements Preferences {
+		private final boolean incrementalModeOn;
+
+		private IncrementalPreferences(final boolean incrementalModeOn) {
+			this.incrementalModeOn= incrementalModeOn;
+		}
+
+		@Override
+		public boolean debugModeOn() {
+			return false;
+		}
+
+		@Override
+		public boolean incrementalModeOn() {
+			return incrementalModeOn;
+		}
+
+		@Override
+		public int saveActionTimeBudget() {
+			return 0;
+		}
+
+		@Override
+		public int maxParallelWorkers() {
+			return 1;
+		}
+
+		@Override
+		public boolean cleanIndexOn() {
+			return false;
+		}
+
+		@Override
+		public boolean profilingOn() {
+			return false;
+		}
+
+		@Override
+		public boolean disjointEditsModeOn() {
+			return false;
+		}
+
+		@Override
+		public boolean isEnabled(final Class<? extends AbstractCleanUpRule> clazz) {
+			return true;
+		}
+	}
+
+	@Test
+	public void testRestrictToNodeTypes() throws Exception {
+		SwitchRule switchRule= new SwitchRule();
+		MethodInvocationRule methodInvocationRule= new MethodInvocationRule();
+		AggregateASTVisitor visitor= new AggregateASTVisitor(Arrays.<RefactoringRule>asList(switchRule, methodInvocationRule));
+		CompilationUnit astRoot= parse("Sample.java", SOURCE); //$NON-NLS-1$
+		visitor.setRefactoringContext(newCompilationUnitRewrite(astRoot));
+
+		BitSet switchOnly= new BitSet();
+		switchOnly.set(ASTNode.SWITCH_STATEMENT);
+		assertTrue(visitor.restrictToNodeTypes(switchOnly));
+		visitor.getRefactorings(astRoot);
+		assertEquals(1, switchRule.nbVisits);
+		assertEquals(0, methodInvocationRule.nbVisits);
+
+		BitSet both= new BitSet();
+		both.set(ASTNode.SWITCH_STATEMENT);
+		both.set(ASTNode.METHOD_INVOCATION);
+		assertFalse(visitor.restrictToNodeTypes(both));
+		visitor.getRefactorings(astRoot);
+		assertEquals(2, switchRule.nbVisits);
+		assertEquals(1, methodInvocationRule.nbVisits);
+
+		assertFalse(visitor.restrictToNodeTypes(null));
+	}
+
+	@Test
+	public void testMethodInvocationsDispatchedOnRegisteredSignatures() throws Exception {
+		RegisteringRule toStringRule= new RegisteringRule("toString"); //$NON-NLS-1$
+		RegisteringRule hashCodeRule= new RegisteringRule("hashCode"); //$NON-NLS-1$
+		RegisteringRule noSignatureRule= new RegisteringRule();
+		AggregateASTVisitor visitor= new AggregateASTVisitor(Arrays.<RefactoringRule>asList(toStringRule, hashCodeRule,
+				noSignatureRule));
+		CompilationUnit astRoot= parse("Sample.java", SOURCE); //$NON-NLS-1$
+		visitor.setRefactoringContext(newCompilationUnitRewrite(astRoot));
+
+		visitor.getRefactorings(astRoot);
+		assertEquals(1, toStringRule.nbVisits);
+		assertEquals(0, hashCodeRule.nbVisits);
+		assertEquals(1, noSignatureRule.nbVisits);
+	}
+
+	@Test
+	public void testPartialVisitSkipsDeclarationVisitors() throws Exception {
+		TypeStateRule typeStateRule= new TypeStateRule();
+		MethodInvocationRule methodInvocationRule= new MethodInvocationRule();
+		AggregateASTVisitor visitor= new AggregateASTVisitor(Arrays.<RefactoringRule>asList(typeStateRule, methodInvocationRule));
+		CompilationUnit astRoot= parse("Sample.java", SOURCE); //$NON-NLS-1$
+		visitor.setRefactoringContext(newCompilationUnitRewrite(astRoot));
+
+		TypeDeclaration type= (TypeDeclaration) astRoot.types().get(0);
+		visitor.getRefactorings(Collections.singletonList(type.getMethods()[0].getBody()));
+		assertEquals(0, typeStateRule.nbVisits);
+		assertEquals(1, methodInvocationRule.nbVisits);
+
+		visitor.getRefactorings(astRoot);
+		assertEquals(2, typeStateRule.nbVisits);
+		assertEquals(2, methodInvocationRule.nbVisits);
+	}
+
+	@Test
+	public void testIncrementalModeGivesSameResult() throws Exception {
+		String source= "package org.autorefactor.refactoring.rules.aggregate;\n" //$NON-NLS-1$
+				+ "public class IncrementalSample {\n" //$NON-NLS-1$
+				+ "    /** Returns the opposite. */\n" //$NON-NLS-1$
+				+ "    public boolean negate(boolean b) {\n" //$NON-NLS-1$
+				+ "        if (b == true) {\n" //$NON-NLS-1$
+				+ "            return false;\n" //$NON-NLS-1$
+				+ "        } else {\n" //$NON-NLS-1$
+				+ "            return true;\n" //$NON-NLS-1$
+				+ "        }\n" //$NON-NLS-1$
+				+ "    }\n" //$NON-NLS-1$
+				+ "\n" //$NON-NLS-1$
+				+ "    /** Returns whether the string is empty. */\n" //$NON-NLS-1$
+				+ "    public boolean isEmpty(String s) {\n" //$NON-NLS-1$
+				+ "        return s.length() == 0 ? true : false;\n" //$NON-NLS-1$
+				+ "    }\n" //$NON-NLS-1$
+				+ "}\n"; //$NON-NLS-1$
+
+		String fullModeResult= refactor("IncrementalSample.java", source, false); //$NON-NLS-1$
+		String incrementalModeResult= refactor("IncrementalSample.java", source, true); //$NON-NLS-1$
+
+		assertEquals(fullModeResult, incrementalModeResult);
+		assertTrue(incrementalModeResult, incrementalModeResult.contains("/** Returns the opposite. */")); //$NON-NLS-1$
+		assertTrue(incrementalModeResult, incrementalModeResult.contains("/** Returns whether the string is empty. */")); //$NON-NLS-1$
+	}
+
+	private static String refactor(final String fileName, final String source, final boolean incrementalModeOn) throws Exception {
+		IPackageFragment packageFragment= JavaCoreHelper.getPackageFragment("org.autorefactor.refactoring.rules.aggregate"); //$NON-NLS-1$
+		ICompilationUnit cu= packageFragment.createCompilationUnit(fileName, source, true, null);
+		cu.getBuffer().setContents(source);
+		cu.save(null, true);
+
+		Environment environment= new Environment(TEST_ENVIRONMENT.getEventLoop(), TEST_ENVIRONMENT.getJobManager(),
+				TEST_ENVIRONMENT.getLogger(), new IncrementalPreferences(incrementalModeOn));
+		IDocument document= new Document(source);
+		new ApplyRefactoringsJob(null, null, environment).applyRefactoring(document, cu,
+				new AggregateASTVisitor(AllCleanUpRules.getAllCleanUpRules()),
+				newJavaProjectOptions(Release.javaSE("1.8.0"), 4), SubMonitor.convert(new NullProgressMonitor()), true); //$NON-NLS-1$
+		return document.get();
+	}
+
+	private static CompilationUnit parse(final String fileName, final String source) throws Exception {
+		IPackageFragment packageFragment= JavaCoreHelper.getPackageFragment("org.autorefactor.refactoring.rules.aggregate"); //$NON-NLS-1$
+		ICompilationUnit cu= packageFragment.createCompilationUnit(fileName, source, true, null);
+		cu.getBuffer().setContents(source);
+		cu.save(null, true);
+
+		@SuppressWarnings("deprecation")
+		ASTParser parser= ASTParser.newParser(AST.JLS8);
+		Method resetParser= ApplyRefactoringsJob.class.getDeclaredMethod("resetParser", ICompilationUnit.class, //$NON-NLS-1$
+				ASTParser.class, JavaProjectOptions.class);
+		resetParser.setAccessible(true);
+		resetParser.invoke(null, cu, parser, newJavaProjectOptions(Release.javaSE("1.8.0"), 4)); //$NON-NLS-1$
+		return (CompilationUnit) parser.createAST(null);
+	}
+
+	private static CompilationUnitRewrite newCompilationUnitRewrite(final CompilationUnit astRoot) {
+		return new CompilationUnitRewrite((ICompilationUnit) astRoot.getJavaElement(), astRoot,
+				newJavaProjectOptions(Release.javaSE("1.8.0"), 4), SubMonitor.convert(new NullProgressMonitor()), //$NON-NLS-1$
+				TEST_ENVIRONMENT);
+	}
+}
@@ -90,6 +90,17 @@ public class AutoRefactorPlugin extends AbstractUIPlugin {
 			log(IStatus.WARNING, message, null);
 		}
 
+		/**
+		 * Log an information message.
+		 *
+		 * @param message the message
+		 */
+		@Override
+		public void info(String message) {
+			// Information never breaks the run, even in debug mode
+			getDefault().getLog().log(new Status(IStatus.INFO, PLUGIN_ID, message));
+		}
+
 		/**
 		 * Log a error message.
 		 *
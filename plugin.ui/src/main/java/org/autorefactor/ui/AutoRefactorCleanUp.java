@@ -80,7 +80,7 @@ public class AutoRefactorCleanUp implements ICleanUp {
 	 */
 	public String[] getStepDescriptions() {
 		if (fOptions.isEnabled(KEY)) {
-			return new String[] { "AutoRefactor (only 1 pass)" }; //$NON-NLS-1$
+			return new String[] { "AutoRefactor" }; //$NON-NLS-1$
 		} else {
 			return new String[0];
 		}
@@ -27,8 +27,6 @@ package org.autorefactor.ui;
 
 import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.autorefactor.AutoRefactorPlugin;
 import org.autorefactor.environment.Environment;
@@ -37,7 +35,6 @@ import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
 import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptionsImpl;
 import org.autorefactor.jdt.internal.corext.dom.PrepareApplyRefactoringsJob;
 import org.autorefactor.jdt.internal.corext.dom.RefactoringRule;
-import org.autorefactor.jdt.internal.corext.dom.RefactoringUnit;
 import org.autorefactor.jdt.internal.ui.fix.AggregateASTVisitor;
 import org.autorefactor.jdt.internal.ui.fix.AllCleanUpRules;
 import org.eclipse.core.runtime.CoreException;
@@ -47,7 +44,6 @@ import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.internal.corext.fix.CleanUpRefactoring.CleanUpChange;
-import org.eclipse.jdt.internal.corext.refactoring.util.TextEditUtil;
 import org.eclipse.jdt.ui.cleanup.CleanUpOptions;
 import org.eclipse.jdt.ui.cleanup.ICleanUpFix;
 import org.eclipse.text.edits.TextEdit;
@@ -79,28 +75,16 @@ public class AutoRefactorFix implements ICleanUpFix {
 			final Environment environment= AutoRefactorPlugin.getEnvironment();
 			final List<RefactoringRule> refactoringRules= getConfiguredRefactoringRules(fOptions);
 			final SubMonitor loopMonitor= SubMonitor.convert(null, 1);
-			final Queue<RefactoringUnit> refactoringUnits= new ConcurrentLinkedQueue<>();
-			refactoringUnits.add(new RefactoringUnit(iCompilationUnit, options));
 
-			final ApplyRefactoringsJob applyRefactoringsJob= new ApplyRefactoringsJob(refactoringUnits,
-					refactoringRules, environment);
+			final ApplyRefactoringsJob applyRefactoringsJob= new ApplyRefactoringsJob(null, refactoringRules,
+					environment);
 			final AggregateASTVisitor visitor= new AggregateASTVisitor(refactoringRules);
 			try {
-				List<TextEdit> textEdits= applyRefactoringsJob.applyRefactoring(iCompilationUnit, visitor, options,
-						loopMonitor, false);
-
-				for (TextEdit textEdit : textEdits) {
-					if (hasChanges) {
-						allEdits= TextEditUtil.merge(allEdits, textEdit);
-					} else {
-						hasChanges= true;
-						allEdits= textEdit;
-					}
-				}
+				allEdits= applyRefactoringsJob.applyRefactoringOnSave(compilationUnit, visitor, options, loopMonitor,
+						environment.getPreferences().saveActionTimeBudget());
+				hasChanges= allEdits != null;
 			} catch (Exception e) {
-				if (!hasChanges) {
-					return null;
-				}
+				return null;
 			}
 		}
 
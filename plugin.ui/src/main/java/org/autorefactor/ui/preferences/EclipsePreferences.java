@@ -57,6 +57,67 @@ public class EclipsePreferences implements Preferences {
 		return getBoolean(PreferenceConstants.DEBUG_MODE_ON);
 	}
 
+	/**
+	 * True if incremental mode is on.
+	 *
+	 * @return True if incremental mode is on.
+	 */
+	@Override
+	public boolean incrementalModeOn() {
+		return getBoolean(PreferenceConstants.INCREMENTAL_MODE_ON);
+	}
+
+	/**
+	 * The time budget of the save action.
+	 *
+	 * @return The time budget of the save action, in milliseconds.
+	 */
+	@Override
+	public int saveActionTimeBudget() {
+		return preferenceStore.getInt(PreferenceConstants.SAVE_ACTION_TIME_BUDGET.getName());
+	}
+
+	/**
+	 * The maximum number of files refactored in parallel.
+	 *
+	 * @return The maximum number of files refactored in parallel, 0 for one per
+	 *         processor.
+	 */
+	@Override
+	public int maxParallelWorkers() {
+		return preferenceStore.getInt(PreferenceConstants.MAX_PARALLEL_WORKERS.getName());
+	}
+
+	/**
+	 * True if the files left unchanged by a previous run are skipped.
+	 *
+	 * @return True if the files left unchanged by a previous run are skipped.
+	 */
+	@Override
+	public boolean cleanIndexOn() {
+		return getBoolean(PreferenceConstants.CLEAN_INDEX_ON);
+	}
+
+	/**
+	 * True if the time spent by each rule and each phase is measured.
+	 *
+	 * @return True if the time spent by each rule and each phase is measured.
+	 */
+	@Override
+	public boolean profilingOn() {
+		return getBoolean(PreferenceConstants.PROFILING_ON);
+	}
+
+	/**
+	 * True if several rules may change disjoint code in the same pass.
+	 *
+	 * @return True if several rules may change disjoint code in the same pass.
+	 */
+	@Override
+	public boolean disjointEditsModeOn() {
+		return getBoolean(PreferenceConstants.DISJOINT_EDITS_MODE_ON);
+	}
+
 	/**
 	 * True if it is enabled.
 	 *
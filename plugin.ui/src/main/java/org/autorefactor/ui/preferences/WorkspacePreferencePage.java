@@ -37,6 +37,7 @@ import org.autorefactor.jdt.internal.ui.fix.AllCleanUpRules;
 import org.autorefactor.preferences.PreferenceConstants;
 import org.eclipse.jface.preference.BooleanFieldEditor;
 import org.eclipse.jface.preference.FieldEditor;
+import org.eclipse.jface.preference.IntegerFieldEditor;
 import org.eclipse.jface.preference.PreferencePage;
 import org.eclipse.swt.SWT;
 import org.eclipse.swt.events.SelectionAdapter;
@@ -152,10 +153,22 @@ public class WorkspacePreferencePage extends PreferencePage implements IWorkbenc
 	 * @param allRefactoringRules allCleanupRules
 	 */
 	protected void initFields(final List<RefactoringRule> allRefactoringRules) {
-		fields= new ArrayList<>(1 + allRefactoringRules.size());
+		fields= new ArrayList<>(7 + allRefactoringRules.size());
 
 		fields.add(new BooleanFieldEditor(PreferenceConstants.DEBUG_MODE_ON.getName(),
 				PreferenceConstants.DEBUG_MODE_ON.getDescription(), fieldEditorParent));
+		fields.add(new BooleanFieldEditor(PreferenceConstants.INCREMENTAL_MODE_ON.getName(),
+				PreferenceConstants.INCREMENTAL_MODE_ON.getDescription(), fieldEditorParent));
+		fields.add(new IntegerFieldEditor(PreferenceConstants.SAVE_ACTION_TIME_BUDGET.getName(),
+				PreferenceConstants.SAVE_ACTION_TIME_BUDGET.getDescription(), fieldEditorParent));
+		fields.add(new IntegerFieldEditor(PreferenceConstants.MAX_PARALLEL_WORKERS.getName(),
+				PreferenceConstants.MAX_PARALLEL_WORKERS.getDescription(), fieldEditorParent));
+		fields.add(new BooleanFieldEditor(PreferenceConstants.CLEAN_INDEX_ON.getName(),
+				PreferenceConstants.CLEAN_INDEX_ON.getDescription(), fieldEditorParent));
+		fields.add(new BooleanFieldEditor(PreferenceConstants.PROFILING_ON.getName(),
+				PreferenceConstants.PROFILING_ON.getDescription(), fieldEditorParent));
+		fields.add(new BooleanFieldEditor(PreferenceConstants.DISJOINT_EDITS_MODE_ON.getName(),
+				PreferenceConstants.DISJOINT_EDITS_MODE_ON.getDescription(), fieldEditorParent));
 	}
 
 	private void invalidateToggleRules(final Composite ruleGroup) {
@@ -25,8 +25,9 @@
  */
 package org.autorefactor.cfg;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Objects;
 
 import org.autorefactor.util.IllegalArgumentException;
@@ -55,8 +56,9 @@ public class CFGBasicBlock implements Comparable<CFGBasicBlock> {
 	 */
 	private final Boolean isEntryBlock;
 	private final LineAndColumn lineAndColumn;
-	private final Collection<CFGEdge> incomingEdges= new LinkedList<>();
-	private final Collection<Object> outgoingEdgesAndVariableAccesses= new LinkedList<>();
+	private final List<CFGEdge> incomingEdges= new ArrayList<>(2);
+	private final List<CFGEdge> outgoingEdges= new ArrayList<>(2);
+	private final List<VariableAccess> variableAccesses= new ArrayList<>();
 
 	private CFGBasicBlock(final ASTNode node, final String fileName, final String codeExcerpt, final boolean isDecision, final Boolean isEntryBlock,
 			final LineAndColumn lineAndColumn) {
@@ -154,14 +156,30 @@ public class CFGBasicBlock implements Comparable<CFGBasicBlock> {
 	}
 
 	/**
-	 * Returns a collection of the outgoing edges and variable accesses of this
-	 * basic block.
+	 * Returns the incoming edges of this basic block.
 	 *
-	 * @return a collection of the outgoing edges and variable accesses of this
-	 *         basic block.
+	 * @return the incoming edges of this basic block
 	 */
-	public Collection<Object> getOutgoingEdgesAndVariableAccesses() {
-		return outgoingEdgesAndVariableAccesses;
+	public Collection<CFGEdge> getIncomingEdges() {
+		return incomingEdges;
+	}
+
+	/**
+	 * Returns the outgoing edges of this basic block.
+	 *
+	 * @return the outgoing edges of this basic block
+	 */
+	public Collection<CFGEdge> getOutgoingEdges() {
+		return outgoingEdges;
+	}
+
+	/**
+	 * Returns the variable accesses of this basic block, in evaluation order.
+	 *
+	 * @return the variable accesses of this basic block
+	 */
+	public List<VariableAccess> getVariableAccesses() {
+		return variableAccesses;
 	}
 
 	/**
@@ -189,7 +207,7 @@ public class CFGBasicBlock implements Comparable<CFGBasicBlock> {
 			throw new IllegalArgumentException(null,
 					"Error: the source block of this outgoing edge is not the current block"); //$NON-NLS-1$
 		}
-		if (!this.outgoingEdgesAndVariableAccesses.add(edge)) {
+		if (!this.outgoingEdges.add(edge)) {
 			throw new IllegalArgumentException(null, "Error: duplicate outgoing edge:" + edge); //$NON-NLS-1$
 		}
 	}
@@ -200,7 +218,7 @@ public class CFGBasicBlock implements Comparable<CFGBasicBlock> {
 	 * @param varAccess the variable access to add to this basic block
 	 */
 	public void addVariableAccess(final VariableAccess varAccess) {
-		this.outgoingEdgesAndVariableAccesses.add(varAccess);
+		this.variableAccesses.add(varAccess);
 	}
 
 	@Override
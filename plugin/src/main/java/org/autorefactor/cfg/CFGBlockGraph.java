@@ -0,0 +1,165 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.cfg;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.autorefactor.util.IllegalArgumentException;
+
+/**
+ * Compact view of the basic blocks reachable from an entry block.
+ * <p>
+ * The blocks are numbered in reverse postorder, so the entry block is the
+ * block 0 and, outside of the loops, each block comes after its predecessors.
+ * The edges are stored as arrays of block numbers.
+ * </p>
+ */
+final class CFGBlockGraph {
+	private final CFGBasicBlock[] blocks;
+	private final Map<CFGBasicBlock, Integer> blockIndexes;
+	private final int[][] successors;
+	private final int[][] predecessors;
+
+	CFGBlockGraph(final CFGBasicBlock entryBlock) {
+		List<CFGBasicBlock> orderedBlocks= reversePostOrder(entryBlock);
+		int blockCount= orderedBlocks.size();
+		this.blocks= orderedBlocks.toArray(new CFGBasicBlock[blockCount]);
+		this.blockIndexes= new IdentityHashMap<>(blockCount);
+		this.successors= new int[blockCount][];
+		this.predecessors= new int[blockCount][];
+
+		for (int i= 0; i < blockCount; i++) {
+			blockIndexes.put(blocks[i], i);
+		}
+
+		int[] predecessorCounts= new int[blockCount];
+		for (int i= 0; i < blockCount; i++) {
+			successors[i]= new int[blocks[i].getOutgoingEdges().size()];
+			int j= 0;
+
+			for (CFGEdge edge : blocks[i].getOutgoingEdges()) {
+				int successor= blockIndexes.get(edge.getTargetBlock());
+				successors[i][j++]= successor;
+				predecessorCounts[successor]++;
+			}
+		}
+
+		for (int i= 0; i < blockCount; i++) {
+			predecessors[i]= new int[predecessorCounts[i]];
+			predecessorCounts[i]= 0;
+		}
+
+		for (int i= 0; i < blockCount; i++) {
+			for (int successor : successors[i]) {
+				predecessors[successor][predecessorCounts[successor]++]= i;
+			}
+		}
+	}
+
+	private static List<CFGBasicBlock> reversePostOrder(final CFGBasicBlock entryBlock) {
+		List<CFGBasicBlock> postOrder= new ArrayList<>();
+		Set<CFGBasicBlock> visited= Collections.newSetFromMap(new IdentityHashMap<CFGBasicBlock, Boolean>());
+		Deque<CFGBasicBlock> blockStack= new ArrayDeque<>();
+		Deque<Iterator<CFGEdge>> edgeStack= new ArrayDeque<>();
+
+		visited.add(entryBlock);
+		blockStack.push(entryBlock);
+		edgeStack.push(entryBlock.getOutgoingEdges().iterator());
+
+		while (!blockStack.isEmpty()) {
+			Iterator<CFGEdge> edges= edgeStack.peek();
+
+			if (edges.hasNext()) {
+				CFGBasicBlock targetBlock= edges.next().getTargetBlock();
+
+				if (visited.add(targetBlock)) {
+					blockStack.push(targetBlock);
+					edgeStack.push(targetBlock.getOutgoingEdges().iterator());
+				}
+			} else {
+				edgeStack.pop();
+				postOrder.add(blockStack.pop());
+			}
+		}
+
+		Collections.reverse(postOrder);
+		return postOrder;
+	}
+
+	int size() {
+		return blocks.length;
+	}
+
+	CFGBasicBlock getBlock(final int index) {
+		return blocks[index];
+	}
+
+	/**
+	 * Returns the number of the provided block.
+	 *
+	 * @param block a block of this graph
+	 * @return the number of the provided block
+	 * @throws IllegalArgumentException if the block is not reachable from the
+	 *                                  entry block
+	 */
+	int indexOf(final CFGBasicBlock block) {
+		Integer index= blockIndexes.get(block);
+
+		if (index == null) {
+			throw new IllegalArgumentException(block.getNode(), "The block is not reachable from the entry block: " + block); //$NON-NLS-1$
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns the number of the provided block.
+	 *
+	 * @param block a block
+	 * @return the number of the provided block, -1 if the block is not reachable
+	 *         from the entry block
+	 */
+	int findIndex(final CFGBasicBlock block) {
+		Integer index= blockIndexes.get(block);
+		return index != null ? index : -1;
+	}
+
+	int[] getSuccessors(final int index) {
+		return successors[index];
+	}
+
+	int[] getPredecessors(final int index) {
+		return predecessors[index];
+	}
+}
@@ -25,7 +25,6 @@
  */
 package org.autorefactor.cfg;
 
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -46,7 +45,6 @@ import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
 import org.autorefactor.jdt.internal.corext.dom.TypeNameDecider;
 import org.autorefactor.util.IllegalStateException;
 import org.autorefactor.util.NotImplementedException;
-import org.autorefactor.util.UnhandledException;
 import org.autorefactor.util.Utils;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
@@ -262,8 +260,9 @@ public class CFGBuilder {
 		switch (node.getNodeType()) {
 		case ASTNode.ARRAY_ACCESS:
 			ArrayAccess aa= (ArrayAccess) node;
-			addVariableAccess(basicBlock, aa.getArray(), flags, throwers);
-			addVariableAccess(basicBlock, aa.getIndex(), flags, throwers);
+			// Writing an array element reads the array and the index variables
+			addVariableAccess(basicBlock, aa.getArray(), VariableAccess.READ, throwers);
+			addVariableAccess(basicBlock, aa.getIndex(), VariableAccess.READ, throwers);
 			throwers.addThrow(aa, newException(node, ArrayIndexOutOfBoundsException.class.getCanonicalName()));
 			return true;
 
@@ -279,8 +278,11 @@ public class CFGBuilder {
 
 		case ASTNode.ASSIGNMENT:
 			Assignment a= (Assignment) node;
-			boolean aMightThrow1= addVariableAccess(basicBlock, a.getLeftHandSide(), VariableAccess.WRITE, throwers);
-			boolean aMightThrow2= addVariableAccess(basicBlock, a.getRightHandSide(), VariableAccess.READ, throwers);
+			// The right hand side is evaluated before the variable is written
+			boolean aMightThrow1= addVariableAccess(basicBlock, a.getRightHandSide(), VariableAccess.READ, throwers);
+			int lhsFlags= ASTNodes.hasOperator(a, Assignment.Operator.ASSIGN) ? VariableAccess.WRITE
+					: VariableAccess.READ | VariableAccess.WRITE;
+			boolean aMightThrow2= addVariableAccess(basicBlock, a.getLeftHandSide(), lhsFlags, throwers);
 			return aMightThrow1 || aMightThrow2;
 
 		case ASTNode.BOOLEAN_LITERAL:
@@ -319,7 +321,7 @@ public class CFGBuilder {
 
 		case ASTNode.FIELD_ACCESS:
 			FieldAccess fa= (FieldAccess) node;
-			boolean mightThrow= addVariableAccess(basicBlock, fa.getExpression(), flags, throwers);
+			boolean mightThrow= addVariableAccess(basicBlock, fa.getExpression(), VariableAccess.READ, throwers);
 			basicBlock.addVariableAccess(new VariableAccess(fa, flags));
 
 			if (is(flags, VariableAccess.READ)) {
@@ -376,11 +378,17 @@ public class CFGBuilder {
 
 		case ASTNode.POSTFIX_EXPRESSION:
 			PostfixExpression poe= (PostfixExpression) node;
-			return addVariableAccess(basicBlock, poe.getOperand(), flags, throwers);
+			return addVariableAccess(basicBlock, poe.getOperand(), VariableAccess.READ | VariableAccess.WRITE, throwers);
 
 		case ASTNode.PREFIX_EXPRESSION:
 			PrefixExpression pre= (PrefixExpression) node;
-			return addVariableAccess(basicBlock, pre.getOperand(), flags, throwers);
+			int operandFlags= flags;
+
+			if (ASTNodes.hasOperator(pre, PrefixExpression.Operator.INCREMENT, PrefixExpression.Operator.DECREMENT)) {
+				operandFlags= VariableAccess.READ | VariableAccess.WRITE;
+			}
+
+			return addVariableAccess(basicBlock, pre.getOperand(), operandFlags, throwers);
 
 		case ASTNode.SUPER_FIELD_ACCESS:
 			SuperFieldAccess sfa= (SuperFieldAccess) node;
@@ -458,9 +466,10 @@ public class CFGBuilder {
 
 	private boolean addDeclaration(final CFGBasicBlock basicBlock, final VariableDeclarationFragment fragment, final Type type,
 			final ThrowerBlocks throwers) {
+		boolean mightThrow= addVariableAccess(basicBlock, fragment.getInitializer(), VariableAccess.READ, throwers);
 		int accessType= fragment.getInitializer() == null ? VariableAccess.DECL_UNINIT : VariableAccess.DECL_INIT | VariableAccess.WRITE;
 		basicBlock.addVariableAccess(new VariableAccess(fragment.getName(), type, accessType));
-		return addVariableAccess(basicBlock, fragment.getInitializer(), VariableAccess.READ, throwers);
+		return mightThrow;
 	}
 
 	private boolean addDeclarations(final CFGBasicBlock basicBlock, final VariableDeclarationExpression variableDeclarationExpression,
@@ -486,11 +495,94 @@ public class CFGBuilder {
 		if (node == null) {
 			return state.nextStmtWillCreateNewBlock();
 		}
-		try {
-			Method m= getClass().getMethod("buildCFG", node.getClass(), LivenessState.class, ThrowerBlocks.class); //$NON-NLS-1$
-			return (LivenessState) m.invoke(this, node, state, throwers);
-		} catch (Exception e) {
-			throw new UnhandledException(node, e);
+
+		return buildCFG(node, state, state, throwers);
+	}
+
+	/**
+	 * Dispatches on the node type to the method building the CFG of the provided
+	 * statement.
+	 *
+	 * @param statement  the statement for which to build a CFG
+	 * @param startState the blocks liveness state before the enclosing statement
+	 *                   list, used to link switch cases to the switch condition
+	 * @param liveState  the blocks liveness state before current statement
+	 * @param throwers   the thrower blocks information
+	 * @return the blocks liveness state after current statement
+	 */
+	private LivenessState buildCFG(final Statement statement, final LivenessState startState, final LivenessState liveState,
+			final ThrowerBlocks throwers) {
+		switch (statement.getNodeType()) {
+		case ASTNode.ASSERT_STATEMENT:
+			return buildCFG((AssertStatement) statement, liveState, throwers);
+
+		case ASTNode.BLOCK:
+			return buildCFG((Block) statement, liveState, throwers);
+
+		case ASTNode.BREAK_STATEMENT:
+			return buildCFG((BreakStatement) statement, liveState);
+
+		case ASTNode.CONSTRUCTOR_INVOCATION:
+			return buildCFG((ConstructorInvocation) statement, liveState, throwers);
+
+		case ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
+			return buildCFG((SuperConstructorInvocation) statement, liveState, throwers);
+
+		case ASTNode.CONTINUE_STATEMENT:
+			return buildCFG((ContinueStatement) statement, liveState);
+
+		case ASTNode.DO_STATEMENT:
+			return buildCFG((DoStatement) statement, liveState, throwers);
+
+		case ASTNode.EMPTY_STATEMENT:
+			return buildCFG((EmptyStatement) statement, liveState);
+
+		case ASTNode.ENHANCED_FOR_STATEMENT:
+			return buildCFG((EnhancedForStatement) statement, liveState, throwers);
+
+		case ASTNode.EXPRESSION_STATEMENT:
+			return buildCFG((ExpressionStatement) statement, liveState, throwers);
+
+		case ASTNode.FOR_STATEMENT:
+			return buildCFG((ForStatement) statement, liveState, throwers);
+
+		case ASTNode.IF_STATEMENT:
+			return buildCFG((IfStatement) statement, liveState, throwers);
+
+		case ASTNode.LABELED_STATEMENT:
+			return buildCFG((LabeledStatement) statement, liveState, throwers);
+
+		case ASTNode.RETURN_STATEMENT:
+			return buildCFG((ReturnStatement) statement, liveState, throwers);
+
+		case ASTNode.SWITCH_CASE:
+			// Here, use startState.liveBasicBlock to build an edge
+			// from the switch condition to the case statement
+			return buildCFG((SwitchCase) statement, startState.liveBasicBlock, liveState, throwers);
+
+		case ASTNode.SWITCH_STATEMENT:
+			return buildCFG((SwitchStatement) statement, liveState, throwers);
+
+		case ASTNode.SYNCHRONIZED_STATEMENT:
+			return buildCFG((SynchronizedStatement) statement, liveState, throwers);
+
+		case ASTNode.THROW_STATEMENT:
+			return buildCFG((ThrowStatement) statement, liveState, throwers);
+
+		case ASTNode.TRY_STATEMENT:
+			return buildCFG((TryStatement) statement, liveState, throwers);
+
+		// case ASTNode.TYPE_DECLARATION_STATEMENT:
+		// return buildCFG((TypeDeclarationStatement) statement, liveState, throwers);
+
+		case ASTNode.VARIABLE_DECLARATION_STATEMENT:
+			return buildCFG((VariableDeclarationStatement) statement, liveState, throwers);
+
+		case ASTNode.WHILE_STATEMENT:
+			return buildCFG((WhileStatement) statement, liveState, throwers);
+
+		default:
+			throw new NotImplementedException(statement);
 		}
 	}
 
@@ -1215,95 +1307,7 @@ public class CFGBuilder {
 	private LivenessState buildCFG(final List<Statement> statements, final LivenessState startState, final ThrowerBlocks throwers) {
 		LivenessState liveState= startState;
 		for (Statement statement : statements) {
-			switch (statement.getNodeType()) {
-			case ASTNode.ASSERT_STATEMENT:
-				liveState= buildCFG((AssertStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.BLOCK:
-				liveState= buildCFG((Block) statement, liveState, throwers);
-				break;
-
-			case ASTNode.BREAK_STATEMENT:
-				liveState= buildCFG((BreakStatement) statement, liveState);
-				break;
-
-			case ASTNode.CONSTRUCTOR_INVOCATION:
-			case ASTNode.SUPER_CONSTRUCTOR_INVOCATION:
-				liveState= buildCFG(statement, liveState, throwers);
-				break;
-
-			case ASTNode.CONTINUE_STATEMENT:
-				liveState= buildCFG((ContinueStatement) statement, liveState);
-				break;
-
-			case ASTNode.DO_STATEMENT:
-				liveState= buildCFG((DoStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.EMPTY_STATEMENT:
-				liveState= buildCFG((EmptyStatement) statement, liveState);
-				break;
-
-			case ASTNode.ENHANCED_FOR_STATEMENT:
-				liveState= buildCFG((EnhancedForStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.EXPRESSION_STATEMENT:
-				liveState= buildCFG((ExpressionStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.FOR_STATEMENT:
-				liveState= buildCFG((ForStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.IF_STATEMENT:
-				liveState= buildCFG((IfStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.LABELED_STATEMENT:
-				liveState= buildCFG((LabeledStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.RETURN_STATEMENT:
-				liveState= buildCFG((ReturnStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.SWITCH_CASE:
-				// Here, use startState.liveBasicBlock to build an edge
-				// from the switch condition to the case statement
-				liveState= buildCFG((SwitchCase) statement, startState.liveBasicBlock, liveState, throwers);
-				break;
-
-			case ASTNode.SWITCH_STATEMENT:
-				liveState= buildCFG((SwitchStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.SYNCHRONIZED_STATEMENT:
-				liveState= buildCFG((SynchronizedStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.THROW_STATEMENT:
-				liveState= buildCFG((ThrowStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.TRY_STATEMENT:
-				liveState= buildCFG((TryStatement) statement, liveState, throwers);
-				// break;case TYPE_DECLARATION_STATEMENT:
-				// buildCFG((TypeDeclarationStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.VARIABLE_DECLARATION_STATEMENT:
-				liveState= buildCFG((VariableDeclarationStatement) statement, liveState, throwers);
-				break;
-
-			case ASTNode.WHILE_STATEMENT:
-				liveState= buildCFG((WhileStatement) statement, liveState, throwers);
-				break;
-
-			default:
-				throw new NotImplementedException(statement);
-			}
+			liveState= buildCFG(statement, startState, liveState, throwers);
 		}
 
 		return liveState;
@@ -1599,7 +1603,7 @@ public class CFGBuilder {
 			}
 		}
 		addVariableAccess(exprBlock, node.getExpression(), VariableAccess.READ, throwers);
-		addVariableAccesses(updatersBlock, node.updaters(), VariableAccess.WRITE, throwers);
+		addVariableAccesses(updatersBlock, node.updaters(), VariableAccess.READ, throwers);
 
 		CFGEdgeBuilder liveBlock= new CFGEdgeBuilder(node.getExpression(), true, exprBlock);
 		LivenessState liveAfterBody= buildCFG(node.getBody(), LivenessState.of(liveBlock), throwers);
@@ -141,12 +141,9 @@ public class CFGDotPrinter {
 			return;
 		}
 
-		for (Object obj : block.getOutgoingEdgesAndVariableAccesses()) {
-			if (obj instanceof CFGEdge) {
-				CFGEdge edge= (CFGEdge) obj;
-				edges.add(edge);
-				collect(edge.getTargetBlock(), subGraphs, edges);
-			}
+		for (CFGEdge edge : block.getOutgoingEdges()) {
+			edges.add(edge);
+			collect(edge.getTargetBlock(), subGraphs, edges);
 		}
 	}
 
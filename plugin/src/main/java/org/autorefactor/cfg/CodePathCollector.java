@@ -27,54 +27,37 @@ package org.autorefactor.cfg;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.LinkedList;
 import java.util.List;
 
-import org.autorefactor.util.IllegalStateException;
-
 /** Collects code paths into the CFG. */
 public class CodePathCollector {
-	private final List<List<CFGBasicBlock>> results= new ArrayList<>();
-	private final LinkedList<CFGBasicBlock> stack= new LinkedList<>();
-
 	/**
 	 * Returns the collected code paths.
 	 *
 	 * @param entryBlock the entry block of the CFG
 	 * @return the collected code paths
+	 * @see ControlFlowAnalysis#getPaths(int)
 	 */
 	public Collection<List<CFGBasicBlock>> getPaths(final CFGBasicBlock entryBlock) {
-		collectPathes(entryBlock);
-		return results;
+		return getPaths(entryBlock, Integer.MAX_VALUE);
 	}
 
-	private void collectPathes(final CFGBasicBlock block) {
-		if (block.isExitBlock()) {
-			// This is the end of this path,
-			// let's take a copy of the stack
-			results.add(new ArrayList<>(stack));
-			return;
-		}
-		if (stack.contains(block)) {
-			// Cycle detected, let's stop it here
-			return;
+	/**
+	 * Returns at most the provided number of code paths. The number of paths grows
+	 * exponentially with the number of consecutive branches, so callers should
+	 * prefer {@link ControlFlowAnalysis} queries or bound the number of paths.
+	 *
+	 * @param entryBlock the entry block of the CFG
+	 * @param maxPaths   the maximum number of paths to collect
+	 * @return the collected code paths, each path listing its blocks from the
+	 *         entry block to the exit block
+	 */
+	public Collection<List<CFGBasicBlock>> getPaths(final CFGBasicBlock entryBlock, final int maxPaths) {
+		List<List<CFGBasicBlock>> results= new ArrayList<>();
+		for (List<CFGBasicBlock> path : new ControlFlowAnalysis(entryBlock).getPaths(maxPaths)) {
+			results.add(path);
 		}
 
-		stack.addFirst(block);
-		try {
-			boolean foundAtLeastOneEdge= false;
-			for (Object obj : block.getOutgoingEdgesAndVariableAccesses()) {
-				if (obj instanceof CFGEdge) {
-					CFGEdge edge= (CFGEdge) obj;
-					collectPathes(edge.getTargetBlock());
-					foundAtLeastOneEdge= true;
-				}
-			}
-			if (!foundAtLeastOneEdge) {
-				throw new IllegalStateException(block.getNode(), "Path should have ended with an exit block: " + stack); //$NON-NLS-1$
-			}
-		} finally {
-			stack.removeLast();
-		}
+		return results;
 	}
 }
@@ -0,0 +1,128 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.cfg;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.autorefactor.util.IllegalStateException;
+
+/**
+ * Iterates lazily over the paths from the entry block to the exit block.
+ * <p>
+ * The current path is kept in an array of block numbers with a bit set of the
+ * blocks it goes through, so the search only allocates the returned paths.
+ * </p>
+ */
+final class CodePathIterator implements Iterator<List<CFGBasicBlock>> {
+	private final CFGBlockGraph graph;
+	private final int maxPaths;
+	private final int[] path;
+	private final int[] nextSuccessors;
+	private final BitSet onPath;
+	private int depth;
+	private int pathCount;
+	private List<CFGBasicBlock> nextPath;
+
+	CodePathIterator(final CFGBlockGraph graph, final int maxPaths) {
+		this.graph= graph;
+		this.maxPaths= maxPaths;
+		this.path= new int[graph.size()];
+		this.nextSuccessors= new int[graph.size()];
+		this.onPath= new BitSet(graph.size());
+		push(0);
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextPath == null && pathCount < maxPaths) {
+			nextPath= computeNext();
+		}
+
+		return nextPath != null;
+	}
+
+	@Override
+	public List<CFGBasicBlock> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		List<CFGBasicBlock> result= nextPath;
+		nextPath= null;
+		pathCount++;
+		return result;
+	}
+
+	private List<CFGBasicBlock> computeNext() {
+		while (depth > 0) {
+			int[] successors= graph.getSuccessors(path[depth - 1]);
+
+			if (nextSuccessors[depth - 1] < successors.length) {
+				int successor= successors[nextSuccessors[depth - 1]++];
+
+				if (!onPath.get(successor)) {
+					push(successor);
+
+					if (graph.getBlock(successor).isExitBlock()) {
+						List<CFGBasicBlock> result= new ArrayList<>(depth);
+						for (int i= 0; i < depth; i++) {
+							result.add(graph.getBlock(path[i]));
+						}
+
+						pop();
+						return result;
+					}
+				}
+			} else {
+				pop();
+			}
+		}
+
+		return null;
+	}
+
+	private void push(final int block) {
+		CFGBasicBlock basicBlock= graph.getBlock(block);
+
+		if (!basicBlock.isExitBlock() && graph.getSuccessors(block).length == 0) {
+			throw new IllegalStateException(basicBlock.getNode(), "Path should have ended with an exit block: " + basicBlock); //$NON-NLS-1$
+		}
+
+		path[depth]= block;
+		nextSuccessors[depth]= 0;
+		depth++;
+		onPath.set(block);
+	}
+
+	private void pop() {
+		depth--;
+		onPath.clear(path[depth]);
+	}
+}
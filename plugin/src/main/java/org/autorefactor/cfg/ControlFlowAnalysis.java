@@ -0,0 +1,400 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.cfg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Dominators, post-dominators and reachability of the basic blocks of a
+ * control flow graph.
+ * <p>
+ * The dominator trees are computed with the iterative algorithm of Cooper,
+ * Harvey and Kennedy over the blocks numbered in reverse postorder, which
+ * converges in a few sweeps on the graphs built from structured code. Each
+ * tree is then numbered in preorder so that a dominance query takes a constant
+ * time. The reachability of each block is computed on the first query.
+ * </p>
+ *
+ * @see <a href="https://www.cs.rice.edu/~keith/EMBED/dom.pdf">A Simple, Fast
+ *      Dominance Algorithm</a>
+ */
+public final class ControlFlowAnalysis {
+	/** The immediate dominator and the preorder interval of each block in a dominator tree. */
+	private static final class DominatorTree {
+		private final int[] immediateDominators;
+		private final int[] preorders;
+		private final int[] lastDescendants;
+
+		private DominatorTree(final int[] immediateDominators, final int root) {
+			int blockCount= immediateDominators.length;
+			this.immediateDominators= immediateDominators;
+			this.preorders= new int[blockCount];
+			this.lastDescendants= new int[blockCount];
+			Arrays.fill(preorders, -1);
+
+			if (root == -1) {
+				return;
+			}
+
+			int[] childCounts= new int[blockCount];
+			for (int i= 0; i < blockCount; i++) {
+				if (i != root && immediateDominators[i] != -1) {
+					childCounts[immediateDominators[i]]++;
+				}
+			}
+
+			int[][] children= new int[blockCount][];
+			for (int i= 0; i < blockCount; i++) {
+				children[i]= new int[childCounts[i]];
+				childCounts[i]= 0;
+			}
+
+			for (int i= 0; i < blockCount; i++) {
+				if (i != root && immediateDominators[i] != -1) {
+					children[immediateDominators[i]][childCounts[immediateDominators[i]]++]= i;
+				}
+			}
+
+			int[] stack= new int[blockCount];
+			int[] nextChildren= new int[blockCount];
+			int stackSize= 0;
+			int preorder= 0;
+			stack[stackSize++]= root;
+			preorders[root]= preorder++;
+
+			while (stackSize > 0) {
+				int block= stack[stackSize - 1];
+
+				if (nextChildren[block] < children[block].length) {
+					int child= children[block][nextChildren[block]++];
+					preorders[child]= preorder++;
+					stack[stackSize++]= child;
+				} else {
+					lastDescendants[block]= preorder - 1;
+					stackSize--;
+				}
+			}
+		}
+
+		private int getImmediateDominator(final int block) {
+			int immediateDominator= immediateDominators[block];
+			return immediateDominator != block ? immediateDominator : -1;
+		}
+
+		private boolean dominates(final int dominator, final int block) {
+			return preorders[dominator] != -1 && preorders[block] != -1 && preorders[dominator] <= preorders[block]
+					&& preorders[block] <= lastDescendants[dominator];
+		}
+	}
+
+	private final CFGBlockGraph graph;
+	private final DominatorTree dominators;
+	private final DominatorTree postDominators;
+	private BitSet[] reachableBlocks;
+
+	/**
+	 * Analyzes the CFG reachable from the provided entry block.
+	 *
+	 * @param entryBlock the entry block of the CFG
+	 */
+	public ControlFlowAnalysis(final CFGBasicBlock entryBlock) {
+		this.graph= new CFGBlockGraph(entryBlock);
+		int blockCount= graph.size();
+
+		int[] reversePostOrder= new int[blockCount];
+		for (int i= 0; i < blockCount; i++) {
+			reversePostOrder[i]= i;
+		}
+
+		this.dominators= new DominatorTree(computeImmediateDominators(reversePostOrder, true), 0);
+
+		int exitBlock= -1;
+		for (int i= 0; i < blockCount; i++) {
+			if (graph.getBlock(i).isExitBlock()) {
+				exitBlock= i;
+				break;
+			}
+		}
+
+		if (exitBlock != -1) {
+			this.postDominators= new DominatorTree(computeImmediateDominators(reverseGraphPostOrder(exitBlock), false), exitBlock);
+		} else {
+			// The method never completes
+			int[] noPostDominators= new int[blockCount];
+			Arrays.fill(noPostDominators, -1);
+			this.postDominators= new DominatorTree(noPostDominators, -1);
+		}
+	}
+
+	/**
+	 * Returns the reverse postorder of the blocks reaching the exit block, walking
+	 * the edges backward from the exit block.
+	 */
+	private int[] reverseGraphPostOrder(final int exitBlock) {
+		int blockCount= graph.size();
+		int[] postOrder= new int[blockCount];
+		int postOrderSize= 0;
+		boolean[] visited= new boolean[blockCount];
+		int[] stack= new int[blockCount];
+		int[] nextPredecessors= new int[blockCount];
+		int stackSize= 0;
+		visited[exitBlock]= true;
+		stack[stackSize++]= exitBlock;
+
+		while (stackSize > 0) {
+			int block= stack[stackSize - 1];
+			int[] predecessors= graph.getPredecessors(block);
+
+			if (nextPredecessors[block] < predecessors.length) {
+				int predecessor= predecessors[nextPredecessors[block]++];
+
+				if (!visited[predecessor]) {
+					visited[predecessor]= true;
+					stack[stackSize++]= predecessor;
+				}
+			} else {
+				postOrder[postOrderSize++]= block;
+				stackSize--;
+			}
+		}
+
+		int[] reversePostOrder= new int[postOrderSize];
+		for (int i= 0; i < postOrderSize; i++) {
+			reversePostOrder[i]= postOrder[postOrderSize - 1 - i];
+		}
+
+		return reversePostOrder;
+	}
+
+	/**
+	 * Computes the immediate dominators of the blocks.
+	 *
+	 * @param order   the blocks reachable from the root, in reverse postorder,
+	 *                starting with the root
+	 * @param forward true to compute the dominators, false to compute the
+	 *                post-dominators
+	 * @return the immediate dominator of each block, the root for the root itself
+	 *         and -1 for the blocks out of the provided order
+	 */
+	private int[] computeImmediateDominators(final int[] order, final boolean forward) {
+		int blockCount= graph.size();
+		int[] orderNumbers= new int[blockCount];
+		Arrays.fill(orderNumbers, -1);
+		for (int i= 0; i < order.length; i++) {
+			orderNumbers[order[i]]= i;
+		}
+
+		int[] immediateDominators= new int[blockCount];
+		Arrays.fill(immediateDominators, -1);
+		immediateDominators[order[0]]= order[0];
+
+		boolean hasChanged= true;
+		while (hasChanged) {
+			hasChanged= false;
+
+			for (int i= 1; i < order.length; i++) {
+				int block= order[i];
+				int newImmediateDominator= -1;
+
+				for (int predecessor : forward ? graph.getPredecessors(block) : graph.getSuccessors(block)) {
+					if (orderNumbers[predecessor] != -1 && immediateDominators[predecessor] != -1) {
+						newImmediateDominator= newImmediateDominator == -1 ? predecessor
+								: intersect(predecessor, newImmediateDominator, immediateDominators, orderNumbers);
+					}
+				}
+
+				if (newImmediateDominator != immediateDominators[block]) {
+					immediateDominators[block]= newImmediateDominator;
+					hasChanged= true;
+				}
+			}
+		}
+
+		return immediateDominators;
+	}
+
+	private static int intersect(final int block1, final int block2, final int[] immediateDominators, final int[] orderNumbers) {
+		int finger1= block1;
+		int finger2= block2;
+
+		while (finger1 != finger2) {
+			while (orderNumbers[finger1] > orderNumbers[finger2]) {
+				finger1= immediateDominators[finger1];
+			}
+
+			while (orderNumbers[finger2] > orderNumbers[finger1]) {
+				finger2= immediateDominators[finger2];
+			}
+		}
+
+		return finger1;
+	}
+
+	/**
+	 * Returns the immediate dominator of the provided block: the closest block
+	 * through which all the paths from the entry block go.
+	 *
+	 * @param block a block reachable from the entry block
+	 * @return the immediate dominator of the provided block, null for the entry
+	 *         block
+	 */
+	public CFGBasicBlock getImmediateDominator(final CFGBasicBlock block) {
+		return toBlock(dominators.getImmediateDominator(graph.indexOf(block)));
+	}
+
+	/**
+	 * Returns whether all the paths from the entry block to a block go through
+	 * another block. A block dominates itself.
+	 *
+	 * @param dominator the block which may dominate
+	 * @param block     the dominated block
+	 * @return true if the first block dominates the second one, false otherwise
+	 */
+	public boolean dominates(final CFGBasicBlock dominator, final CFGBasicBlock block) {
+		return dominators.dominates(graph.indexOf(dominator), graph.indexOf(block));
+	}
+
+	/**
+	 * Returns the immediate post-dominator of the provided block: the closest
+	 * block through which all the paths to the exit block go.
+	 *
+	 * @param block a block reachable from the entry block
+	 * @return the immediate post-dominator of the provided block, null for the
+	 *         exit block and for the blocks which never reach the exit block
+	 */
+	public CFGBasicBlock getImmediatePostDominator(final CFGBasicBlock block) {
+		return toBlock(postDominators.getImmediateDominator(graph.indexOf(block)));
+	}
+
+	/**
+	 * Returns whether all the paths from a block to the exit block go through
+	 * another block. A block post-dominates itself.
+	 *
+	 * @param postDominator the block which may post-dominate
+	 * @param block         the post-dominated block
+	 * @return true if the first block post-dominates the second one, false
+	 *         otherwise
+	 */
+	public boolean postDominates(final CFGBasicBlock postDominator, final CFGBasicBlock block) {
+		return postDominators.dominates(graph.indexOf(postDominator), graph.indexOf(block));
+	}
+
+	/**
+	 * Returns whether a path goes from a block to another one. A block only
+	 * reaches itself through a loop.
+	 *
+	 * @param from the source block
+	 * @param to   the target block
+	 * @return true if at least one path of at least one edge goes from the source
+	 *         block to the target block, false otherwise
+	 */
+	public boolean isReachable(final CFGBasicBlock from, final CFGBasicBlock to) {
+		int fromIndex= graph.indexOf(from);
+		int toIndex= graph.findIndex(to);
+		return toIndex != -1 && getReachableBlocks()[fromIndex].get(toIndex);
+	}
+
+	/**
+	 * Returns whether the provided block is in a loop.
+	 *
+	 * @param block a block reachable from the entry block
+	 * @return true if the block can be executed several times, false otherwise
+	 */
+	public boolean isInLoop(final CFGBasicBlock block) {
+		int index= graph.indexOf(block);
+		return getReachableBlocks()[index].get(index);
+	}
+
+	private BitSet[] getReachableBlocks() {
+		if (reachableBlocks == null) {
+			int blockCount= graph.size();
+			BitSet[] results= new BitSet[blockCount];
+
+			for (int i= 0; i < blockCount; i++) {
+				results[i]= new BitSet(blockCount);
+
+				for (int successor : graph.getSuccessors(i)) {
+					results[i].set(successor);
+				}
+			}
+
+			// Sweep in postorder so that the successors are mostly done first
+			boolean hasChanged= true;
+			while (hasChanged) {
+				hasChanged= false;
+
+				for (int i= blockCount - 1; i >= 0; i--) {
+					int cardinality= results[i].cardinality();
+
+					for (int successor : graph.getSuccessors(i)) {
+						results[i].or(results[successor]);
+					}
+
+					if (results[i].cardinality() != cardinality) {
+						hasChanged= true;
+					}
+				}
+			}
+
+			reachableBlocks= results;
+		}
+
+		return reachableBlocks;
+	}
+
+	/**
+	 * Returns the paths from the entry block to the exit block, computed lazily
+	 * and in depth first order. A path never goes twice through the same block.
+	 *
+	 * @param maxPaths the maximum number of paths to return
+	 * @return the paths, each path listing its blocks from the entry block to the
+	 *         exit block
+	 */
+	public Iterable<List<CFGBasicBlock>> getPaths(final int maxPaths) {
+		return () -> new CodePathIterator(graph, maxPaths);
+	}
+
+	/**
+	 * Returns the blocks reachable from the entry block, in reverse postorder.
+	 *
+	 * @return the blocks reachable from the entry block, in reverse postorder
+	 */
+	public List<CFGBasicBlock> getBlocks() {
+		List<CFGBasicBlock> results= new ArrayList<>(graph.size());
+		for (int i= 0; i < graph.size(); i++) {
+			results.add(graph.getBlock(i));
+		}
+
+		return results;
+	}
+
+	private CFGBasicBlock toBlock(final int index) {
+		return index != -1 ? graph.getBlock(index) : null;
+	}
+}
@@ -0,0 +1,420 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.cfg;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.autorefactor.util.IllegalArgumentException;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+
+/**
+ * Liveness and reaching definitions of the local variables of a control flow
+ * graph.
+ * <p>
+ * The basic blocks reachable from the entry block are numbered in reverse
+ * postorder. The local variables and their definitions are numbered in the
+ * order they are met. The gen and kill sets of each block are {@link BitSet}s
+ * indexed by these numbers and a worklist solver computes each problem on its
+ * first query.
+ * </p>
+ * <p>
+ * Only the local variables and the parameters are tracked, because any method
+ * call may read or write a field. The variables are identified by their
+ * bindings, so the CFG must be built from an AST with resolved bindings. The
+ * results only follow the edges built by {@link CFGBuilder}, which does not
+ * link the throwing blocks to the catch clauses yet.
+ * </p>
+ */
+public final class DataFlowAnalysis {
+	private static final int READ= 1 << 0;
+	private static final int DEFINITION= 1 << 1;
+
+	private final CFGBlockGraph graph;
+
+	/** The accessed names, in evaluation order, for each block. */
+	private final SimpleName[][] eventNames;
+	/** The index of the accessed variable, for each block and each access. */
+	private final int[][] eventVariables;
+	/** The {@link #READ} and {@link #DEFINITION} flags, for each block and each access. */
+	private final int[][] eventFlags;
+	/** The index of the definition or -1, for each block and each access. */
+	private final int[][] eventDefinitions;
+	/** The block index and the access index of each accessed name. */
+	private final Map<SimpleName, int[]> eventPositions= new IdentityHashMap<>();
+
+	private final Map<IVariableBinding, Integer> variableIndexes= new HashMap<>();
+	private final List<SimpleName> definitions= new ArrayList<>();
+	/** The definitions of each variable. */
+	private final List<BitSet> variableDefinitions= new ArrayList<>();
+
+	private BitSet[] liveOut;
+	private BitSet[] reachIn;
+
+	/**
+	 * Indexes the CFG reachable from the provided entry block.
+	 *
+	 * @param entryBlock the entry block of the CFG
+	 */
+	public DataFlowAnalysis(final CFGBasicBlock entryBlock) {
+		this.graph= new CFGBlockGraph(entryBlock);
+		int blockCount= graph.size();
+		this.eventNames= new SimpleName[blockCount][];
+		this.eventVariables= new int[blockCount][];
+		this.eventFlags= new int[blockCount][];
+		this.eventDefinitions= new int[blockCount][];
+
+		for (int i= 0; i < blockCount; i++) {
+			indexAccesses(i);
+		}
+	}
+
+	private void indexAccesses(final int block) {
+		List<SimpleName> names= new ArrayList<>();
+		List<Integer> variables= new ArrayList<>();
+		List<Integer> flags= new ArrayList<>();
+
+		for (VariableAccess access : graph.getBlock(block).getVariableAccesses()) {
+			Name name= access.getName();
+
+			if (name instanceof SimpleName) {
+				IVariableBinding variable= getLocalVariable(name);
+
+				if (variable != null) {
+					names.add((SimpleName) name);
+					variables.add(getVariableIndex(variable));
+					flags.add((access.isRead() ? READ : 0) | (access.isDefinition() ? DEFINITION : 0));
+				}
+			} else if (name instanceof QualifiedName) {
+				// Accessing a field of a local variable reads the variable
+				Name qualifier= (QualifiedName) name;
+
+				while (qualifier instanceof QualifiedName) {
+					qualifier= ((QualifiedName) qualifier).getQualifier();
+				}
+
+				IVariableBinding variable= getLocalVariable(qualifier);
+
+				if (variable != null) {
+					names.add((SimpleName) qualifier);
+					variables.add(getVariableIndex(variable));
+					flags.add(READ);
+				}
+			}
+		}
+
+		int eventCount= names.size();
+		eventNames[block]= names.toArray(new SimpleName[eventCount]);
+		eventVariables[block]= new int[eventCount];
+		eventFlags[block]= new int[eventCount];
+		eventDefinitions[block]= new int[eventCount];
+
+		for (int i= 0; i < eventCount; i++) {
+			eventVariables[block][i]= variables.get(i);
+			eventFlags[block][i]= flags.get(i);
+			eventDefinitions[block][i]= -1;
+			eventPositions.put(eventNames[block][i], new int[] { block, i });
+
+			if ((eventFlags[block][i] & DEFINITION) != 0) {
+				int definition= definitions.size();
+				definitions.add(eventNames[block][i]);
+				variableDefinitions.get(eventVariables[block][i]).set(definition);
+				eventDefinitions[block][i]= definition;
+			}
+		}
+	}
+
+	private static IVariableBinding getLocalVariable(final Name name) {
+		IBinding binding= name.resolveBinding();
+
+		if (binding instanceof IVariableBinding && !((IVariableBinding) binding).isField()) {
+			return ((IVariableBinding) binding).getVariableDeclaration();
+		}
+
+		return null;
+	}
+
+	private int getVariableIndex(final IVariableBinding variable) {
+		Integer index= variableIndexes.get(variable);
+
+		if (index == null) {
+			index= variableIndexes.size();
+			variableIndexes.put(variable, index);
+			variableDefinitions.add(new BitSet());
+		}
+
+		return index;
+	}
+
+	/**
+	 * Returns whether the provided name is an access to a local variable in a
+	 * reachable block of the CFG.
+	 *
+	 * @param name the name of a variable
+	 * @return true if the queries accept this name, false otherwise
+	 */
+	public boolean isAnalyzed(final SimpleName name) {
+		return eventPositions.containsKey(name);
+	}
+
+	/**
+	 * Returns whether the value given to a local variable may be read afterwards.
+	 *
+	 * @param definition the name of the variable in its declaration or on the
+	 *                   left hand side of an assignment
+	 * @return true if the value may be read on at least one path, false otherwise
+	 */
+	public boolean isReadAfter(final SimpleName definition) {
+		int[] position= getPosition(definition, DEFINITION);
+		int block= position[0];
+		int variable= eventVariables[block][position[1]];
+
+		for (int i= position[1] + 1; i < eventNames[block].length; i++) {
+			if (eventVariables[block][i] == variable) {
+				if ((eventFlags[block][i] & READ) != 0) {
+					return true;
+				}
+
+				if ((eventFlags[block][i] & DEFINITION) != 0) {
+					return false;
+				}
+			}
+		}
+
+		return getLiveOut()[block].get(variable);
+	}
+
+	/**
+	 * Returns the definitions of a local variable which value may be read by the
+	 * provided access: the use-def chain.
+	 * <p>
+	 * A declaration without initializer is also returned as a definition, meaning
+	 * that the variable may not be assigned.
+	 * </p>
+	 *
+	 * @param read the name of the variable where it is read
+	 * @return the names of the variable in the definitions reaching the read
+	 */
+	public List<SimpleName> getReachingDefinitions(final SimpleName read) {
+		int[] position= getPosition(read, READ);
+		int block= position[0];
+		int variable= eventVariables[block][position[1]];
+
+		for (int i= position[1] - 1; i >= 0; i--) {
+			if (eventVariables[block][i] == variable && (eventFlags[block][i] & DEFINITION) != 0) {
+				return Collections.singletonList(eventNames[block][i]);
+			}
+		}
+
+		BitSet reaching= (BitSet) getReachIn()[block].clone();
+		reaching.and(variableDefinitions.get(variable));
+
+		List<SimpleName> results= new ArrayList<>(reaching.cardinality());
+		for (int definition= reaching.nextSetBit(0); definition >= 0; definition= reaching.nextSetBit(definition + 1)) {
+			results.add(definitions.get(definition));
+		}
+
+		return results;
+	}
+
+	/**
+	 * Returns the reads of a local variable which may see the value given by the
+	 * provided definition: the def-use chain.
+	 *
+	 * @param definition the name of the variable in its declaration or on the
+	 *                   left hand side of an assignment
+	 * @return the names of the variable where the value may be read
+	 */
+	public List<SimpleName> getReads(final SimpleName definition) {
+		int[] position= getPosition(definition, DEFINITION);
+		int block= position[0];
+		int variable= eventVariables[block][position[1]];
+		int definitionIndex= eventDefinitions[block][position[1]];
+
+		List<SimpleName> results= new ArrayList<>();
+		if (collectReads(block, position[1] + 1, variable, results)) {
+			return results;
+		}
+
+		BitSet[] reachingDefinitions= getReachIn();
+		for (int i= 0; i < graph.size(); i++) {
+			if (reachingDefinitions[i].get(definitionIndex)) {
+				collectReads(i, 0, variable, results);
+			}
+		}
+
+		return results;
+	}
+
+	/**
+	 * @return true if a definition of the variable ends the search, false if the
+	 *         end of the block is reached
+	 */
+	private boolean collectReads(final int block, final int firstEvent, final int variable, final List<SimpleName> results) {
+		for (int i= firstEvent; i < eventNames[block].length; i++) {
+			if (eventVariables[block][i] == variable) {
+				if ((eventFlags[block][i] & READ) != 0) {
+					results.add(eventNames[block][i]);
+				}
+
+				if ((eventFlags[block][i] & DEFINITION) != 0) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private int[] getPosition(final SimpleName name, final int expectedFlag) {
+		int[] position= eventPositions.get(name);
+
+		if (position == null || (eventFlags[position[0]][position[1]] & expectedFlag) == 0) {
+			throw new IllegalArgumentException(name, "Expected a " + (expectedFlag == READ ? "read" : "definition") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					+ " of a local variable in a reachable block, but got: " + name); //$NON-NLS-1$
+		}
+
+		return position;
+	}
+
+	private BitSet[] getLiveOut() {
+		if (liveOut == null) {
+			BitSet[] uses= new BitSet[graph.size()];
+			BitSet[] defs= new BitSet[graph.size()];
+
+			for (int i= 0; i < graph.size(); i++) {
+				uses[i]= new BitSet();
+				defs[i]= new BitSet();
+
+				for (int j= 0; j < eventNames[i].length; j++) {
+					int variable= eventVariables[i][j];
+
+					if ((eventFlags[i][j] & READ) != 0 && !defs[i].get(variable)) {
+						uses[i].set(variable);
+					}
+
+					if ((eventFlags[i][j] & DEFINITION) != 0) {
+						defs[i].set(variable);
+					}
+				}
+			}
+
+			liveOut= solve(false, uses, defs);
+		}
+
+		return liveOut;
+	}
+
+	private BitSet[] getReachIn() {
+		if (reachIn == null) {
+			BitSet[] gens= new BitSet[graph.size()];
+			BitSet[] kills= new BitSet[graph.size()];
+
+			for (int i= 0; i < graph.size(); i++) {
+				gens[i]= new BitSet();
+				kills[i]= new BitSet();
+
+				for (int j= 0; j < eventNames[i].length; j++) {
+					if (eventDefinitions[i][j] != -1) {
+						BitSet sameVariableDefinitions= variableDefinitions.get(eventVariables[i][j]);
+						gens[i].andNot(sameVariableDefinitions);
+						gens[i].set(eventDefinitions[i][j]);
+						kills[i].or(sameVariableDefinitions);
+					}
+				}
+			}
+
+			reachIn= solve(true, gens, kills);
+		}
+
+		return reachIn;
+	}
+
+	/**
+	 * Computes the fixpoint of a gen/kill problem.
+	 * <p>
+	 * The blocks are swept in reverse postorder for a forward problem and in
+	 * postorder for a backward problem, so most of the problems converge in two
+	 * sweeps.
+	 * </p>
+	 *
+	 * @param forward whether the facts flow along the edges or against them
+	 * @param gens    the facts generated by each block
+	 * @param kills   the facts killed by each block
+	 * @return the facts at the start of each block for a forward problem, at the
+	 *         end of each block for a backward problem
+	 */
+	private BitSet[] solve(final boolean forward, final BitSet[] gens, final BitSet[] kills) {
+		int blockCount= graph.size();
+		BitSet[] before= new BitSet[blockCount];
+		BitSet[] after= new BitSet[blockCount];
+
+		for (int i= 0; i < blockCount; i++) {
+			before[i]= new BitSet();
+			after[i]= (BitSet) gens[i].clone();
+		}
+
+		BitSet worklist= new BitSet(blockCount);
+		worklist.set(0, blockCount);
+		BitSet transferred= new BitSet();
+
+		while (!worklist.isEmpty()) {
+			for (int i= forward ? worklist.nextSetBit(0) : worklist.previousSetBit(blockCount - 1); i >= 0;
+					i= forward ? worklist.nextSetBit(i + 1) : worklist.previousSetBit(i - 1)) {
+				worklist.clear(i);
+
+				for (int flowPredecessor : forward ? graph.getPredecessors(i) : graph.getSuccessors(i)) {
+					before[i].or(after[flowPredecessor]);
+				}
+
+				transferred.clear();
+				transferred.or(before[i]);
+				transferred.andNot(kills[i]);
+				transferred.or(gens[i]);
+
+				if (!transferred.equals(after[i])) {
+					// The facts only grow, so the new facts include the previous ones
+					after[i].or(transferred);
+
+					for (int flowSuccessor : forward ? graph.getSuccessors(i) : graph.getPredecessors(i)) {
+						worklist.set(flowSuccessor);
+					}
+				}
+			}
+		}
+
+		return before;
+	}
+}
@@ -66,6 +66,56 @@ public class VariableAccess {
 		this(astNode instanceof Name ? (Name) astNode : null, null, accessType);
 	}
 
+	/**
+	 * Returns the name of the accessed variable.
+	 *
+	 * @return the name of the accessed variable, null if the accessed expression
+	 *         is not a name
+	 */
+	public Name getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the declared type of the variable.
+	 *
+	 * @return the declared type of the variable, null if this access is not a
+	 *         declaration
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Returns the access type to the variable.
+	 *
+	 * @return the access type to the variable, as a combination of
+	 *         {@link #DECL_INIT}, {@link #DECL_UNINIT}, {@link #READ} and
+	 *         {@link #WRITE}
+	 */
+	public int getAccessType() {
+		return accessType;
+	}
+
+	/**
+	 * Returns whether this access reads the value of the variable.
+	 *
+	 * @return true if this access reads the value of the variable, false otherwise
+	 */
+	public boolean isRead() {
+		return (accessType & READ) != 0;
+	}
+
+	/**
+	 * Returns whether this access gives a new value to the variable, including a
+	 * declaration without initializer.
+	 *
+	 * @return true if this access defines the variable, false otherwise
+	 */
+	public boolean isDefinition() {
+		return (accessType & (DECL_INIT | DECL_UNINIT | WRITE)) != 0;
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb= new StringBuilder("VAR_ACCESS["); //$NON-NLS-1$
@@ -0,0 +1,214 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.autorefactor.environment.Environment;
+import org.autorefactor.jdt.internal.corext.dom.ApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.corext.dom.PluginConstant;
+import org.autorefactor.jdt.internal.corext.dom.PrepareApplyRefactoringsJob;
+import org.autorefactor.jdt.internal.ui.fix.AllCleanUpRules;
+import org.autorefactor.util.IllegalArgumentException;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IProjectDescription;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.QualifiedName;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.IJobChangeListener;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * Eclipse application applying the cleanups without a workbench.
+ * <p>
+ * It links the source directories into a temporary Java project of the
+ * workspace, so the refactored files are written straight to their original
+ * location. A project of the workspace that was not created by this
+ * application is never reused nor deleted. For example:
+ *
+ * <pre>
+ * eclipse -nosplash -data /tmp/workspace -application org.autorefactor.plugin.headless \
+ *     -source src/main/java -classpath lib/a.jar:lib/b.jar -release 1.8 -threads 4
+ * </pre>
+ */
+public class HeadlessApplication implements IApplication {
+	/** The exit code when the arguments are not valid. */
+	private static final Integer EXIT_USAGE= 2;
+	/** The exit code when errors occurred while refactoring. */
+	private static final Integer EXIT_ERRORS= 1;
+	private static final String JRE_CONTAINER= "org.eclipse.jdt.launching.JRE_CONTAINER"; //$NON-NLS-1$
+	/** Marks the projects created by this application, so they can be safely deleted. */
+	private static final QualifiedName CREATED_BY_HEADLESS= new QualifiedName(PluginConstant.PLUGIN_ID, "headless"); //$NON-NLS-1$
+
+	private HeadlessJobManager jobManager;
+
+	@Override
+	public Object start(final IApplicationContext context) throws Exception {
+		String[] args= (String[]) context.getArguments().get(IApplicationContext.APPLICATION_ARGS);
+		HeadlessLogger logger= new HeadlessLogger(System.out, System.err);
+		HeadlessArguments arguments;
+		try {
+			arguments= HeadlessArguments.parse(args != null ? args : new String[0]);
+		} catch (IllegalArgumentException e) {
+			logger.error(e.getMessage());
+			logger.info(HeadlessArguments.USAGE);
+			return EXIT_USAGE;
+		}
+
+		jobManager= new HeadlessJobManager();
+		Environment environment= new Environment(new HeadlessEventLoop(), jobManager, logger, new HeadlessPreferences(arguments));
+
+		IProject project= ResourcesPlugin.getWorkspace().getRoot().getProject(arguments.getProjectName());
+		if (project.exists() && !isCreatedByHeadless(project)) {
+			logger.error("The project " + arguments.getProjectName() //$NON-NLS-1$
+					+ " already exists in the workspace, choose another name with -project"); //$NON-NLS-1$
+			return EXIT_USAGE;
+		}
+
+		disableAutoBuilding();
+		IJavaProject javaProject= createJavaProject(project, arguments);
+		AtomicInteger nbFailedJobs= new AtomicInteger();
+		IJobChangeListener failureListener= new JobChangeAdapter() {
+			@Override
+			public void done(final IJobChangeEvent event) {
+				if (event.getJob().belongsTo(ApplyRefactoringsJob.FAMILY) && event.getResult().getSeverity() == IStatus.ERROR) {
+					nbFailedJobs.incrementAndGet();
+					logger.error(event.getResult().getMessage(), toException(event.getResult().getException()));
+				}
+			}
+		};
+
+		Job.getJobManager().addJobChangeListener(failureListener);
+		try {
+			long start= System.nanoTime();
+			PrepareApplyRefactoringsJob prepareJob= new PrepareApplyRefactoringsJob(
+					Collections.<IJavaElement>singletonList(javaProject),
+					AllCleanUpRules.getConfiguredRefactoringRules(environment.getPreferences()), environment);
+			prepareJob.schedule();
+			prepareJob.join();
+
+			if (prepareJob.getResult().getSeverity() == IStatus.ERROR) {
+				logger.error(prepareJob.getResult().getMessage(), toException(prepareJob.getResult().getException()));
+				return EXIT_ERRORS;
+			}
+
+			Job.getJobManager().join(ApplyRefactoringsJob.FAMILY, null);
+			double seconds= (System.nanoTime() - start) / 1e9;
+			int nbFiles= prepareJob.getNbRefactoringUnits();
+			logger.info(String.format(Locale.ROOT, "AutoRefactor processed %d files in %.1f s (%.1f files/s)", //$NON-NLS-1$
+					nbFiles, seconds, seconds > 0 ? nbFiles / seconds : 0d));
+		} finally {
+			Job.getJobManager().removeJobChangeListener(failureListener);
+			// Only removes the links, the linked source directories are kept
+			javaProject.getProject().delete(true, true, null);
+		}
+
+		return nbFailedJobs.get() > 0 || logger.getNbErrors() > 0 ? EXIT_ERRORS : IApplication.EXIT_OK;
+	}
+
+	@Override
+	public void stop() {
+		if (jobManager != null) {
+			jobManager.cancelJobs();
+		}
+	}
+
+	private static Exception toException(final Throwable throwable) {
+		if (throwable == null || throwable instanceof Exception) {
+			return (Exception) throwable;
+		}
+
+		return new Exception(throwable);
+	}
+
+	private static void disableAutoBuilding() throws CoreException {
+		IWorkspace workspace= ResourcesPlugin.getWorkspace();
+		IWorkspaceDescription description= workspace.getDescription();
+
+		if (description.isAutoBuilding()) {
+			description.setAutoBuilding(false);
+			workspace.setDescription(description);
+		}
+	}
+
+	private static boolean isCreatedByHeadless(final IProject project) throws CoreException {
+		return project.isOpen() && Boolean.TRUE.toString().equals(project.getPersistentProperty(CREATED_BY_HEADLESS));
+	}
+
+	private static IJavaProject createJavaProject(final IProject project, final HeadlessArguments arguments) throws CoreException {
+		// Only a project left by a previous run that has been interrupted
+		if (project.exists()) {
+			project.delete(true, true, null);
+		}
+
+		project.create(null);
+		project.open(null);
+		project.setPersistentProperty(CREATED_BY_HEADLESS, Boolean.TRUE.toString());
+		IProjectDescription description= project.getDescription();
+		description.setNatureIds(new String[] { JavaCore.NATURE_ID });
+		project.setDescription(description, null);
+
+		List<IClasspathEntry> entries= new ArrayList<>();
+		List<File> sourceDirectories= arguments.getSourceDirectories();
+		for (int i= 0; i < sourceDirectories.size(); i++) {
+			IFolder folder= project.getFolder("src" + i); //$NON-NLS-1$
+			folder.createLink(new Path(sourceDirectories.get(i).getAbsolutePath()), IResource.NONE, null);
+			entries.add(JavaCore.newSourceEntry(folder.getFullPath()));
+		}
+
+		for (File classpathEntry : arguments.getClasspath()) {
+			entries.add(JavaCore.newLibraryEntry(new Path(classpathEntry.getAbsolutePath()), null, null));
+		}
+
+		entries.add(JavaCore.newContainerEntry(new Path(JRE_CONTAINER)));
+
+		IJavaProject javaProject= JavaCore.create(project);
+		javaProject.setRawClasspath(entries.toArray(new IClasspathEntry[entries.size()]), project.getFolder("bin").getFullPath(), null); //$NON-NLS-1$
+		javaProject.setOption(JavaCore.COMPILER_COMPLIANCE, arguments.getRelease());
+		javaProject.setOption(JavaCore.COMPILER_SOURCE, arguments.getRelease());
+		javaProject.setOption(JavaCore.COMPILER_CODEGEN_TARGET_PLATFORM, arguments.getRelease());
+		return javaProject;
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.headless;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.autorefactor.util.IllegalArgumentException;
+
+/** The command line arguments of the headless application. */
+final class HeadlessArguments {
+	/** The usage of the headless application. */
+	static final String USAGE= "Usage: -source <dir> [-source <dir>...] [-classpath <jars and dirs>] [-release <version>]" //$NON-NLS-1$
+			+ " [-threads <count>] [-rules <comma separated cleanup class names>] [-cleanIndex] [-profile] [-disjointEdits] [-project <name>]"; //$NON-NLS-1$
+
+	private final List<File> sourceDirectories= new ArrayList<>();
+	private final List<File> classpath= new ArrayList<>();
+	private String release= "1.8"; //$NON-NLS-1$
+	private int nbThreads;
+	private Set<String> rules;
+	private boolean cleanIndexOn;
+	private boolean profilingOn;
+	private boolean disjointEditsModeOn;
+	private String projectName= "autorefactor-headless"; //$NON-NLS-1$
+
+	private HeadlessArguments() {
+	}
+
+	/**
+	 * Parses the command line arguments.
+	 *
+	 * @param args the command line arguments
+	 * @return the parsed arguments
+	 * @throws IllegalArgumentException if the arguments are not valid
+	 */
+	static HeadlessArguments parse(final String[] args) {
+		HeadlessArguments results= new HeadlessArguments();
+
+		for (int i= 0; i < args.length; i++) {
+			switch (args[i]) {
+			case "-source": //$NON-NLS-1$
+				results.sourceDirectories.add(new File(getValue(args, ++i)));
+				break;
+
+			case "-classpath": //$NON-NLS-1$
+				for (String entry : getValue(args, ++i).split(File.pathSeparator)) {
+					if (!entry.isEmpty()) {
+						results.classpath.add(new File(entry));
+					}
+				}
+				break;
+
+			case "-release": //$NON-NLS-1$
+				results.release= getValue(args, ++i);
+				break;
+
+			case "-threads": //$NON-NLS-1$
+				try {
+					results.nbThreads= Integer.parseInt(getValue(args, ++i));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException(null, "-threads expects a number: " + args[i]); //$NON-NLS-1$
+				}
+				break;
+
+			case "-rules": //$NON-NLS-1$
+				results.rules= new LinkedHashSet<>(Arrays.asList(getValue(args, ++i).split(","))); //$NON-NLS-1$
+				break;
+
+			case "-cleanIndex": //$NON-NLS-1$
+				results.cleanIndexOn= true;
+				break;
+
+			case "-profile": //$NON-NLS-1$
+				results.profilingOn= true;
+				break;
+
+			case "-disjointEdits": //$NON-NLS-1$
+				results.disjointEditsModeOn= true;
+				break;
+
+			case "-project": //$NON-NLS-1$
+				results.projectName= getValue(args, ++i);
+				break;
+
+			default:
+				throw new IllegalArgumentException(null, "Unknown argument: " + args[i]); //$NON-NLS-1$
+			}
+		}
+
+		if (results.sourceDirectories.isEmpty()) {
+			throw new IllegalArgumentException(null, "At least one -source directory is required"); //$NON-NLS-1$
+		}
+
+		for (File sourceDirectory : results.sourceDirectories) {
+			if (!sourceDirectory.isDirectory()) {
+				throw new IllegalArgumentException(null, "Not a directory: " + sourceDirectory); //$NON-NLS-1$
+			}
+		}
+
+		return results;
+	}
+
+	private static String getValue(final String[] args, final int index) {
+		if (index >= args.length) {
+			throw new IllegalArgumentException(null, args[index - 1] + " expects a value"); //$NON-NLS-1$
+		}
+
+		return args[index];
+	}
+
+	List<File> getSourceDirectories() {
+		return sourceDirectories;
+	}
+
+	List<File> getClasspath() {
+		return classpath;
+	}
+
+	String getRelease() {
+		return release;
+	}
+
+	/**
+	 * Returns the maximum number of files refactored in parallel.
+	 *
+	 * @return the maximum number of files refactored in parallel, 0 for one per
+	 *         processor
+	 */
+	int getNbThreads() {
+		return nbThreads;
+	}
+
+	/**
+	 * Returns the simple class names of the cleanups to apply.
+	 *
+	 * @return the simple class names of the cleanups to apply, null to apply the
+	 *         cleanups enabled by default
+	 */
+	Set<String> getRules() {
+		return rules;
+	}
+
+	boolean isCleanIndexOn() {
+		return cleanIndexOn;
+	}
+
+	boolean isProfilingOn() {
+		return profilingOn;
+	}
+
+	boolean isDisjointEditsModeOn() {
+		return disjointEditsModeOn;
+	}
+
+	String getProjectName() {
+		return projectName;
+	}
+}
@@ -0,0 +1,77 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.headless;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.autorefactor.environment.Logger;
+
+/** Logger writing to the standard streams and counting the errors. */
+class HeadlessLogger implements Logger {
+	private final PrintStream out;
+	private final PrintStream err;
+	private final AtomicInteger nbErrors= new AtomicInteger();
+
+	HeadlessLogger(final PrintStream out, final PrintStream err) {
+		this.out= out;
+		this.err= err;
+	}
+
+	@Override
+	public void error(final String message) {
+		error(message, null);
+	}
+
+	@Override
+	public void error(final String message, final Exception e) {
+		nbErrors.incrementAndGet();
+		err.println("ERROR: " + message); //$NON-NLS-1$
+
+		if (e != null) {
+			e.printStackTrace(err);
+		}
+	}
+
+	@Override
+	public void warn(final String message) {
+		err.println("WARNING: " + message); //$NON-NLS-1$
+	}
+
+	@Override
+	public void info(final String message) {
+		out.println(message);
+	}
+
+	/**
+	 * Returns the number of errors logged so far.
+	 *
+	 * @return the number of errors logged so far
+	 */
+	int getNbErrors() {
+		return nbErrors.get();
+	}
+}
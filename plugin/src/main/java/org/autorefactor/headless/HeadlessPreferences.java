@@ -0,0 +1,96 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.headless;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.autorefactor.jdt.internal.corext.dom.RefactoringRule;
+import org.autorefactor.jdt.internal.ui.fix.AbstractCleanUpRule;
+import org.autorefactor.jdt.internal.ui.fix.AllCleanUpRules;
+import org.autorefactor.preferences.PreferenceConstants;
+import org.autorefactor.preferences.Preferences;
+
+/**
+ * Preferences of the headless application: the default preferences, overridden
+ * by the command line arguments.
+ */
+class HeadlessPreferences implements Preferences {
+	private final HeadlessArguments arguments;
+	private final Map<Class<?>, Boolean> enabledByDefault= new HashMap<>();
+
+	HeadlessPreferences(final HeadlessArguments arguments) {
+		this.arguments= arguments;
+
+		for (RefactoringRule refactoringRule : AllCleanUpRules.getAllCleanUpRules()) {
+			enabledByDefault.put(refactoringRule.getClass(), refactoringRule.isByDefault());
+		}
+	}
+
+	@Override
+	public boolean debugModeOn() {
+		return false;
+	}
+
+	@Override
+	public boolean incrementalModeOn() {
+		return (Boolean) PreferenceConstants.INCREMENTAL_MODE_ON.getDefaultValue();
+	}
+
+	@Override
+	public int saveActionTimeBudget() {
+		return (Integer) PreferenceConstants.SAVE_ACTION_TIME_BUDGET.getDefaultValue();
+	}
+
+	@Override
+	public int maxParallelWorkers() {
+		return arguments.getNbThreads();
+	}
+
+	@Override
+	public boolean cleanIndexOn() {
+		return arguments.isCleanIndexOn();
+	}
+
+	@Override
+	public boolean profilingOn() {
+		return arguments.isProfilingOn();
+	}
+
+	@Override
+	public boolean disjointEditsModeOn() {
+		return arguments.isDisjointEditsModeOn();
+	}
+
+	@Override
+	public boolean isEnabled(final Class<? extends AbstractCleanUpRule> clazz) {
+		if (arguments.getRules() != null) {
+			return arguments.getRules().contains(clazz.getSimpleName());
+		}
+
+		return Boolean.TRUE.equals(enabledByDefault.get(clazz));
+	}
+}
@@ -25,6 +25,7 @@
  */
 package org.autorefactor.jdt.core.dom;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
@@ -41,6 +42,7 @@ import org.autorefactor.jdt.internal.corext.dom.SourceRewriter;
 import org.autorefactor.util.Pair;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.core.ISourceRange;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.BlockComment;
@@ -54,6 +56,8 @@ import org.eclipse.jdt.core.dom.rewrite.ListRewrite;
 import org.eclipse.jdt.core.dom.rewrite.TargetSourceRangeComputer;
 import org.eclipse.jface.text.BadLocationException;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.jface.text.Region;
 import org.eclipse.text.edits.TextEdit;
 import org.eclipse.text.edits.TextEditGroup;
 
@@ -69,11 +73,15 @@ public class ASTRewrite {
 	private final org.eclipse.jdt.core.dom.rewrite.ASTRewrite rewrite;
 	private final ImportRewrite importRewrite;
 	private TextEdit edits;
+	private TextEdit importEdits;
+	private long eventLoopWaitNanos;
 	private final Map<Pair<ASTNode, ChildListPropertyDescriptor>, ListRewrite> listRewriteCache= new HashMap<>();
 	private final ASTCommentRewriter commentRewriter;
 	private final SourceRewriter sourceRewriter= new SourceRewriter();
 	/** Nodes that cannot be visited. */
 	private final Set<ASTNode> refactoredNodes= new HashSet<>();
+	/** The source ranges changed by the cleanups when they are tracked, null otherwise. */
+	private List<SourceLocation> refactoredRanges;
 
 	private boolean hasRefactorings;
 
@@ -120,14 +128,87 @@ public class ASTRewrite {
 	 * @return true if the provided node has been refactored, false otherwise
 	 */
 	public boolean hasBeenRefactored(final ASTNode node) {
+		if (refactoredRanges != null) {
+			return overlapsRefactoredRange(node);
+		}
+
 		return refactoredNodes.contains(node);
 	}
 
+	/**
+	 * Tracks the source ranges changed by the cleanups instead of marking the
+	 * refactored nodes and all their ancestors. A node has then been refactored
+	 * only if its source range overlaps a changed range, so several cleanups can
+	 * change disjoint parts of the same method in one pass.
+	 */
+	public void trackRefactoredRanges() {
+		if (refactoredRanges == null) {
+			refactoredRanges= new ArrayList<>();
+		}
+	}
+
+	private boolean overlapsRefactoredRange(final ASTNode node) {
+		int start= node.getStartPosition();
+		int end= start + node.getLength();
+		for (SourceLocation refactoredRange : refactoredRanges) {
+			// An insertion point only overlaps the nodes strictly around it
+			if (start < refactoredRange.getEndPosition() && refactoredRange.getStartPosition() < end) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
 	private void addRefactoredNodes(final ASTNode node) {
+		addRefactoredRange(node);
+		addRefactoredAncestors(node);
+	}
+
+	private void addRefactoredAncestors(final ASTNode node) {
 		hasRefactorings= true;
 		refactoredNodes.add(node);
 		if (node.getParent() != null) {
-			addRefactoredNodes(node.getParent());
+			addRefactoredAncestors(node.getParent());
+		}
+	}
+
+	private void addRefactoredRange(final ASTNode node) {
+		if (refactoredRanges != null && node.getStartPosition() >= 0) {
+			TargetSourceRangeComputer.SourceRange range= rewrite.getExtendedSourceRangeComputer()
+					.computeSourceRange(node);
+			refactoredRanges.add(new SourceLocation(range.getStartPosition(), range.getLength()));
+		}
+	}
+
+	private void addRefactoredRange(final ISourceRange range) {
+		if (refactoredRanges != null) {
+			refactoredRanges.add(new SourceLocation(range.getOffset(), range.getLength()));
+		}
+	}
+
+	private void addInsertionPoint(final ASTNode listHolder, final StructuralPropertyDescriptor locationInParent,
+			final int index) {
+		if (refactoredRanges == null || listHolder.getStartPosition() < 0) {
+			return;
+		}
+
+		List<?> elements= (List<?>) listHolder.getStructuralProperty(locationInParent);
+		if (elements.isEmpty()) {
+			addRefactoredRange(listHolder);
+		} else if (index < elements.size()) {
+			addInsertionPoint((ASTNode) elements.get(index), true);
+		} else {
+			addInsertionPoint((ASTNode) elements.get(elements.size() - 1), false);
+		}
+	}
+
+	private void addInsertionPoint(final ASTNode element, final boolean isBefore) {
+		if (refactoredRanges != null && element.getStartPosition() >= 0) {
+			TargetSourceRangeComputer.SourceRange range= rewrite.getExtendedSourceRangeComputer()
+					.computeSourceRange(element);
+			int position= isBefore ? range.getStartPosition() : range.getStartPosition() + range.getLength();
+			refactoredRanges.add(new SourceLocation(position, 0));
 		}
 	}
 
@@ -146,6 +227,7 @@ public class ASTRewrite {
 	 * @see ASTRewrite#createCopyTarget(ASTNode)
 	 */
 	public <T extends ASTNode> T createCopyTarget(final T node) {
+		addRefactoredRange(node);
 		return (T) rewrite.createCopyTarget(node);
 	}
 
@@ -165,6 +247,8 @@ public class ASTRewrite {
 	 * @see ListRewrite#createCopyTarget(ASTNode, ASTNode)
 	 */
 	public <T extends ASTNode> T createCopyTarget(final T first, final T last) {
+		addRefactoredRange(first);
+		addRefactoredRange(last);
 		return (T) getListRewrite(first).createCopyTarget(first, last);
 	}
 
@@ -210,6 +294,7 @@ public class ASTRewrite {
 	 * @see ASTRewrite#createMoveTarget(ASTNode)
 	 */
 	public <T extends ASTNode> T createMoveTarget(final T node) {
+		addRefactoredRange(node);
 		return (T) rewrite.createMoveTarget(node);
 	}
 
@@ -236,6 +321,8 @@ public class ASTRewrite {
 	 * @see ListRewrite#createMoveTarget(ASTNode, ASTNode)
 	 */
 	public <T extends ASTNode> T createMoveTarget(final T first, final T last) {
+		addRefactoredRange(first);
+		addRefactoredRange(last);
 		return (T) getListRewrite(first).createMoveTarget(first, last);
 	}
 
@@ -298,6 +385,7 @@ public class ASTRewrite {
 	 */
 	public void replace(final Comment comment, final String replacement) {
 		hasRefactorings= true;
+		addRefactoredRange(comment);
 		commentRewriter.replace(comment, replacement);
 	}
 
@@ -310,6 +398,7 @@ public class ASTRewrite {
 	 */
 	public void replace(final SourceLocation toReplace, final String replacement) {
 		hasRefactorings= true;
+		addRefactoredRange(toReplace);
 		this.sourceRewriter.replace(toReplace, replacement);
 	}
 
@@ -351,6 +440,7 @@ public class ASTRewrite {
 			throw new IllegalArgumentException("Cannot remove an empty source range: " + toRemove); //$NON-NLS-1$
 		}
 		hasRefactorings= true;
+		addRefactoredRange(toRemove);
 		sourceRewriter.remove(toRemove);
 	}
 
@@ -400,8 +490,9 @@ public class ASTRewrite {
 	public void insertAt(final ASTNode listHolder, final StructuralPropertyDescriptor locationInParent,
 			final ASTNode nodeToInsert,
 			final int index, final TextEditGroup editGroup) {
+		addInsertionPoint(listHolder, locationInParent, index);
 		getListRewrite(listHolder, locationInParent).insertAt(nodeToInsert, index, editGroup);
-		addRefactoredNodes(listHolder);
+		addRefactoredAncestors(listHolder);
 	}
 
 	/**
@@ -414,8 +505,9 @@ public class ASTRewrite {
 	 *      org.eclipse.text.edits.TextEditGroup)
 	 */
 	public void insertBefore(final ASTNode nodeToInsert, final ASTNode element, final TextEditGroup editGroup) {
+		addInsertionPoint(element, true);
 		getListRewrite(element).insertBefore(nodeToInsert, element, editGroup);
-		addRefactoredNodes(element.getParent());
+		addRefactoredAncestors(element.getParent());
 	}
 
 	/**
@@ -428,8 +520,9 @@ public class ASTRewrite {
 	 *      org.eclipse.text.edits.TextEditGroup)
 	 */
 	public void insertAfter(final ASTNode nodeToInsert, final ASTNode element, final TextEditGroup editGroup) {
+		addInsertionPoint(element, false);
 		getListRewrite(element).insertAfter(nodeToInsert, element, editGroup);
-		addRefactoredNodes(element.getParent());
+		addRefactoredAncestors(element.getParent());
 	}
 
 	/**
@@ -443,8 +536,9 @@ public class ASTRewrite {
 	 */
 	public void insertFirst(final ASTNode listHolder, final StructuralPropertyDescriptor locationInParent,
 			final ASTNode nodeToInsert, final TextEditGroup editGroup) {
+		addInsertionPoint(listHolder, locationInParent, 0);
 		getListRewrite(listHolder, locationInParent).insertFirst(nodeToInsert, editGroup);
-		addRefactoredNodes(listHolder);
+		addRefactoredAncestors(listHolder);
 	}
 
 	/**
@@ -458,8 +552,9 @@ public class ASTRewrite {
 	 */
 	public void insertLast(final ASTNode listHolder, final StructuralPropertyDescriptor locationInParent,
 			final ASTNode nodeToInsert, final TextEditGroup editGroup) {
+		addInsertionPoint(listHolder, locationInParent, Integer.MAX_VALUE);
 		getListRewrite(listHolder, locationInParent).insertLast(nodeToInsert, editGroup);
-		addRefactoredNodes(listHolder);
+		addRefactoredAncestors(listHolder);
 	}
 
 	/**
@@ -484,6 +579,7 @@ public class ASTRewrite {
 	 */
 	public void toJavadoc(final LineComment lineComment, final ASTNode nextNode) {
 		hasRefactorings= true;
+		addRefactoredRange(lineComment);
 		commentRewriter.toJavadoc(lineComment, nextNode);
 	}
 
@@ -494,6 +590,7 @@ public class ASTRewrite {
 	 */
 	public void toJavadoc(final BlockComment blockComment) {
 		hasRefactorings= true;
+		addRefactoredRange(blockComment);
 		commentRewriter.toJavadoc(blockComment);
 	}
 
@@ -522,25 +619,47 @@ public class ASTRewrite {
 	 * @throws CoreException        CoreException
 	 */
 	public void applyTo(final IDocument document, final boolean hasToSave) throws BadLocationException, CoreException {
+		applyTo(document, hasToSave, true);
+	}
+
+	/**
+	 * Applies the accumulated cleanups to the provided document.
+	 *
+	 * @param document        the document to refactor
+	 * @param hasToSave       true if the saving should be handled here
+	 * @param isBoundToEditor true if the document may be displayed in an editor,
+	 *                        so it must only be changed from the event loop
+	 * @throws BadLocationException if trying to access a non existing position
+	 * @throws CoreException        CoreException
+	 */
+	public void applyTo(final IDocument document, final boolean hasToSave, final boolean isBoundToEditor)
+			throws BadLocationException, CoreException {
 		edits= rewrite.rewriteAST(document, null);
-		TextEdit importEdits= importRewrite.rewriteImports(monitor);
+		importEdits= importRewrite.rewriteImports(monitor);
 		commentRewriter.addEdits(document, edits);
 		sourceRewriter.addEdits(document, edits);
 
 		if (hasToSave) {
-			applyEditsToDocument(edits, importEdits, document);
+			if (isBoundToEditor) {
+				applyEditsInEventLoop(edits, importEdits, document);
+			} else {
+				// Nobody else looks at this document: no need to wait for the event loop
+				applyEditsToDocument(edits, importEdits, document);
+			}
 		}
 	}
 
-	private void applyEditsToDocument(final TextEdit edits, final TextEdit importEdits, final IDocument document)
+	private void applyEditsInEventLoop(final TextEdit edits, final TextEdit importEdits, final IDocument document)
 			throws BadLocationException {
 		// Call this operation on the SWT Display Thread with syncExec(),
 		// because it changes or adds something to the GUI.
 		// Otherwise it would throw an Invalid thread access Exception.
+		final long requestTime= System.nanoTime();
 		eventLoop.syncExec(() -> {
+			eventLoopWaitNanos+= System.nanoTime() - requestTime;
+
 			try {
-				edits.apply(document, TextEdit.UPDATE_REGIONS);
-				importEdits.apply(document);
+				applyEditsToDocument(edits, importEdits, document);
 				return null;
 			} catch (BadLocationException e) {
 				return e;
@@ -548,6 +667,21 @@ public class ASTRewrite {
 		});
 	}
 
+	private static void applyEditsToDocument(final TextEdit edits, final TextEdit importEdits, final IDocument document)
+			throws BadLocationException {
+		edits.apply(document, TextEdit.UPDATE_REGIONS);
+		importEdits.apply(document);
+	}
+
+	/**
+	 * Returns the time spent waiting for the event loop to apply the edits.
+	 *
+	 * @return the time spent waiting for the event loop, in nanoseconds
+	 */
+	public long getEventLoopWaitNanos() {
+		return eventLoopWaitNanos;
+	}
+
 	/**
 	 * Gets the ImportRewrite rewrite object.
 	 *
@@ -566,6 +700,38 @@ public class ASTRewrite {
 		return edits;
 	}
 
+	/**
+	 * Returns whether the imports have been changed by the applied cleanups.
+	 *
+	 * @return true if the imports have been changed, false otherwise
+	 */
+	public boolean hasImportChanges() {
+		return importEdits != null && importEdits.hasChildren();
+	}
+
+	/**
+	 * Returns the regions changed by the edits applied to the document.
+	 * <p>
+	 * The edits regions are updated when applied, so the regions are expressed in
+	 * the coordinates of the refactored document, not counting the import
+	 * changes.
+	 *
+	 * @return the regions changed by the edits applied to the document
+	 */
+	public List<IRegion> getChangedRegions() {
+		if (edits == null) {
+			return new ArrayList<>(0);
+		}
+
+		TextEdit[] children= edits.getChildren();
+		List<IRegion> changedRegions= new ArrayList<>(children.length);
+		for (TextEdit child : children) {
+			changedRegions.add(new Region(child.getOffset(), child.getLength()));
+		}
+
+		return changedRegions;
+	}
+
 	/**
 	 * Gets the ASTRewrite rewrite object.
 	 *
@@ -269,6 +269,9 @@ public final class ASTNodes {
 	 */
 	public static final int EXCESSIVE_OPERAND_NUMBER= 5;
 
+	/** Node property remembering the index of a node in its list of siblings. */
+	private static final String SIBLING_INDEX= "autorefactor.siblingIndex"; //$NON-NLS-1$
+
 	private ASTNodes() {
 	}
 
@@ -983,7 +986,7 @@ public final class ASTNodes {
 				statements= asList((Statement) statementAtLevel.getParent());
 			}
 
-			int indexOfNode= statements.indexOf(statementAtLevel);
+			int indexOfNode= indexOfSibling(statements, statementAtLevel);
 			int siblingIndex= indexOfNode + (isForward ? 1 : -1);
 
 			if (0 <= siblingIndex && siblingIndex < statements.size()) {
@@ -998,6 +1001,37 @@ public final class ASTNodes {
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Returns the index of the provided node in its list of siblings. The index is
+	 * remembered on each sibling, so walking a long list of statements does not
+	 * search the list again and again. A remembered index is only trusted if it
+	 * still points to the node, so it stays correct when the list is changed.
+	 */
+	private static int indexOfSibling(final List<? extends ASTNode> siblings, final ASTNode node) {
+		Object cachedIndex= node.getProperty(SIBLING_INDEX);
+
+		if (cachedIndex instanceof Integer) {
+			int index= (Integer) cachedIndex;
+
+			if (index < siblings.size() && siblings.get(index) == node) {
+				return index;
+			}
+		}
+
+		// Index all the siblings at once: their neighbours are often asked next
+		int indexOfNode= -1;
+		for (int i= 0; i < siblings.size(); i++) {
+			ASTNode sibling= siblings.get(i);
+			sibling.setProperty(SIBLING_INDEX, i);
+
+			if (sibling == node) {
+				indexOfNode= i;
+			}
+		}
+
+		return indexOfNode;
+	}
+
 	/**
 	 * Returns the next statement in the source file if it exists.
 	 *
@@ -1175,7 +1209,13 @@ public final class ASTNodes {
 			ITypeBinding erasure= typeBinding.getErasure();
 
 			if (erasure != null) {
-				return Arrays.asList(oneOfQualifiedTypeNames).contains(erasure.getQualifiedName());
+				String qualifiedName= TypeNameCache.getQualifiedName(erasure);
+
+				for (String oneOfQualifiedTypeName : oneOfQualifiedTypeNames) {
+					if (qualifiedName.equals(oneOfQualifiedTypeName)) {
+						return true;
+					}
+				}
 			}
 		}
 
@@ -1260,6 +1300,23 @@ public final class ASTNodes {
 	 *         type name, false otherwise
 	 */
 	public static boolean instanceOf(final ITypeBinding typeBinding, final String qualifiedTypeName) {
+		if (typeBinding == null) {
+			return false;
+		}
+
+		// The erasure of a type variable, a capture or a wildcard loses the other bounds
+		ITypeBinding erasure= typeBinding.getErasure();
+		if (erasure != null && !erasure.isFromSource() && erasure.getKey() != null
+				&& !typeBinding.isTypeVariable() && !typeBinding.isCapture() && !typeBinding.isWildcardType()
+				&& qualifiedTypeName.indexOf('<') == -1) {
+			String projectName= TypeNameCache.getProjectName(erasure);
+
+			if (projectName != null) {
+				// Only a parameterized type name needs to be compared to the type before erasure
+				return TypeNameCache.getSupertypeNames(projectName, erasure).contains(qualifiedTypeName);
+			}
+		}
+
 		return findImplementedType(typeBinding, qualifiedTypeName) != null;
 	}
 
@@ -1817,6 +1874,28 @@ public final class ASTNodes {
 			return false;
 		}
 
+		ITypeBinding declaringClass= actualMethodBinding.getDeclaringClass();
+		String projectName= declaringClass != null && !declaringClass.isFromSource()
+				&& actualMethodBinding.getKey() != null ? TypeNameCache.getProjectName(declaringClass) : null;
+		if (projectName == null) {
+			return usesGivenSignatureInHierarchy(actualMethodBinding, typeQualifiedName, methodName,
+					parameterTypesQualifiedNames);
+		}
+
+		// The hierarchy of a binary type does not change during a run
+		String methodKey= actualMethodBinding.getKey();
+		Boolean matches= MethodSignatureCache.get(projectName, methodKey, typeQualifiedName, parameterTypesQualifiedNames);
+		if (matches == null) {
+			matches= usesGivenSignatureInHierarchy(actualMethodBinding, typeQualifiedName, methodName,
+					parameterTypesQualifiedNames);
+			MethodSignatureCache.put(projectName, methodKey, typeQualifiedName, parameterTypesQualifiedNames, matches);
+		}
+
+		return matches;
+	}
+
+	private static boolean usesGivenSignatureInHierarchy(final IMethodBinding actualMethodBinding,
+			final String typeQualifiedName, final String methodName, final String[] parameterTypesQualifiedNames) {
 		// OK more heavy checks now
 		ITypeBinding declaringClass= actualMethodBinding.getDeclaringClass();
 		ITypeBinding implementedType= findImplementedType(declaringClass, typeQualifiedName);
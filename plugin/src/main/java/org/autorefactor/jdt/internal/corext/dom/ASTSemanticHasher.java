@@ -0,0 +1,322 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BooleanLiteral;
+import org.eclipse.jdt.core.dom.ChildListPropertyDescriptor;
+import org.eclipse.jdt.core.dom.ChildPropertyDescriptor;
+import org.eclipse.jdt.core.dom.ConditionalExpression;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.IfStatement;
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.Javadoc;
+import org.eclipse.jdt.core.dom.ParenthesizedExpression;
+import org.eclipse.jdt.core.dom.PostfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+import org.eclipse.jdt.core.dom.SimplePropertyDescriptor;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.StructuralPropertyDescriptor;
+
+/**
+ * Computes a hash of the code that is consistent with {@link ASTSemanticMatcher}:
+ * two pieces of code that match always have the same hash. So the candidates
+ * can be put in buckets and only the candidates of the same bucket need to be
+ * matched pairwise.
+ * <p>
+ * The hash is coarser than the matcher wherever the matcher compares the code
+ * on semantic:
+ * <ul>
+ * <li>the parentheses and the blocks with a single statement are ignored,</li>
+ * <li>all the boolean expressions share the same hash as they may match their
+ * negation,</li>
+ * <li>the then and else clauses are interchangeable,</li>
+ * <li>the operands of the commutative operators are not ordered and the neutral
+ * operands are ignored,</li>
+ * <li>the increments, the decrements and the assignments with or without
+ * operator are hashed the same way.</li>
+ * </ul>
+ */
+public final class ASTSemanticHasher {
+	private static final int BOOLEAN_HASH= 0x5bd1e995;
+	private static final int COMPOUND_ASSIGNMENT_HASH= 0x27d4eb2d;
+
+	private ASTSemanticHasher() {
+	}
+
+	/**
+	 * Returns the hash of the provided statements.
+	 *
+	 * @param nodes the statements
+	 * @return the hash of the provided statements
+	 */
+	public static int hash(final List<? extends ASTNode> nodes) {
+		int hash= 1;
+
+		for (ASTNode node : nodes) {
+			hash= 31 * hash + hash(node);
+		}
+
+		return hash;
+	}
+
+	/**
+	 * Returns the hash of the provided node.
+	 *
+	 * @param node the node
+	 * @return the hash of the provided node, equal for all the nodes that match on
+	 *         semantic
+	 */
+	public static int hash(final ASTNode node) {
+		if (node == null || node instanceof Javadoc) {
+			return 0;
+		}
+
+		if (node instanceof ParenthesizedExpression) {
+			return hash(((ParenthesizedExpression) node).getExpression());
+		}
+
+		if (node instanceof Block) {
+			List<Statement> statements= ((Block) node).statements();
+
+			if (statements.size() == 1) {
+				return hash(statements.get(0));
+			}
+
+			return combine(ASTNode.BLOCK, hash(statements));
+		}
+
+		if (node instanceof IfStatement) {
+			IfStatement ifStatement= (IfStatement) node;
+
+			if (ifStatement.getElseStatement() == null) {
+				return combine(ASTNode.IF_STATEMENT, hash(ifStatement.getThenStatement()));
+			}
+
+			return combine(ASTNode.IF_STATEMENT, hash(ifStatement.getThenStatement()) + hash(ifStatement.getElseStatement()));
+		}
+
+		if (node instanceof Expression) {
+			return hashExpression((Expression) node);
+		}
+
+		return hashStructure(node);
+	}
+
+	private static int hashExpression(final Expression expression) {
+		if (isBoolean(expression)) {
+			return BOOLEAN_HASH;
+		}
+
+		if (expression instanceof ConditionalExpression) {
+			ConditionalExpression conditionalExpression= (ConditionalExpression) expression;
+			return combine(ASTNode.CONDITIONAL_EXPRESSION, hash(conditionalExpression.getThenExpression()) + hash(conditionalExpression.getElseExpression()));
+		}
+
+		if (expression instanceof InfixExpression) {
+			InfixExpression infixExpression= (InfixExpression) expression;
+
+			if (ASTNodes.hasOperator(infixExpression, InfixExpression.Operator.PLUS, InfixExpression.Operator.TIMES, InfixExpression.Operator.AND,
+					InfixExpression.Operator.OR, InfixExpression.Operator.XOR)) {
+				int hash= 0;
+
+				for (Expression operand : commutativeOperands(infixExpression, new ArrayList<Expression>())) {
+					hash+= hash(operand);
+				}
+
+				return combine(ASTNode.INFIX_EXPRESSION, 31 * infixExpression.getOperator().toString().hashCode() + hash);
+			}
+		}
+
+		if (expression instanceof PrefixExpression) {
+			PrefixExpression prefixExpression= (PrefixExpression) expression;
+
+			if (ASTNodes.hasOperator(prefixExpression, PrefixExpression.Operator.INCREMENT)) {
+				return hashCompoundAssignment(InfixExpression.Operator.PLUS, prefixExpression.getOperand(), null);
+			}
+			if (ASTNodes.hasOperator(prefixExpression, PrefixExpression.Operator.DECREMENT)) {
+				return hashCompoundAssignment(InfixExpression.Operator.MINUS, prefixExpression.getOperand(), null);
+			}
+		}
+
+		if (expression instanceof PostfixExpression) {
+			PostfixExpression postfixExpression= (PostfixExpression) expression;
+
+			if (ASTNodes.hasOperator(postfixExpression, PostfixExpression.Operator.INCREMENT)) {
+				return hashCompoundAssignment(InfixExpression.Operator.PLUS, postfixExpression.getOperand(), null);
+			}
+
+			return hashCompoundAssignment(InfixExpression.Operator.MINUS, postfixExpression.getOperand(), null);
+		}
+
+		if (expression instanceof Assignment) {
+			return hashAssignment((Assignment) expression);
+		}
+
+		return hashStructure(expression);
+	}
+
+	private static int hashAssignment(final Assignment assignment) {
+		Expression leftHandSide= assignment.getLeftHandSide();
+
+		if (!ASTNodes.hasOperator(assignment, Assignment.Operator.ASSIGN)) {
+			return hashCompoundAssignment(toInfixOperator(assignment.getOperator()), leftHandSide, assignment.getRightHandSide());
+		}
+
+		InfixExpression infixExpression= ASTNodes.as(assignment.getRightHandSide(), InfixExpression.class);
+
+		if (infixExpression != null
+				&& !infixExpression.hasExtendedOperands()
+				&& ASTNodes.hasOperator(infixExpression, InfixExpression.Operator.PLUS, InfixExpression.Operator.MINUS,
+						InfixExpression.Operator.TIMES, InfixExpression.Operator.DIVIDE, InfixExpression.Operator.AND,
+						InfixExpression.Operator.OR, InfixExpression.Operator.XOR, InfixExpression.Operator.REMAINDER,
+						InfixExpression.Operator.LEFT_SHIFT, InfixExpression.Operator.RIGHT_SHIFT_SIGNED,
+						InfixExpression.Operator.RIGHT_SHIFT_UNSIGNED)) {
+			int variableHash= hash(leftHandSide);
+
+			if (hash(infixExpression.getLeftOperand()) == variableHash) {
+				return hashCompoundAssignment(infixExpression.getOperator(), leftHandSide, infixExpression.getRightOperand());
+			}
+
+			// The matcher also accepts the commuted operands
+			if (hash(infixExpression.getRightOperand()) == variableHash
+					&& ASTNodes.hasOperator(infixExpression, InfixExpression.Operator.PLUS, InfixExpression.Operator.TIMES,
+							InfixExpression.Operator.AND, InfixExpression.Operator.OR, InfixExpression.Operator.XOR)) {
+				return hashCompoundAssignment(infixExpression.getOperator(), leftHandSide, infixExpression.getLeftOperand());
+			}
+		}
+
+		return hashStructure(assignment);
+	}
+
+	/**
+	 * The amount of the additions and subtractions is ignored because the
+	 * increments match any expression with a value of one.
+	 */
+	private static int hashCompoundAssignment(final InfixExpression.Operator operator, final Expression variable,
+			final Expression amount) {
+		int hash= combine(COMPOUND_ASSIGNMENT_HASH, operator.toString().hashCode());
+		hash= combine(hash, hash(variable));
+
+		if (amount == null
+				|| InfixExpression.Operator.PLUS.equals(operator)
+				|| InfixExpression.Operator.MINUS.equals(operator)) {
+			return hash;
+		}
+
+		return combine(hash, hash(amount));
+	}
+
+	private static InfixExpression.Operator toInfixOperator(final Assignment.Operator operator) {
+		String token= operator.toString();
+		return InfixExpression.Operator.toOperator(token.substring(0, token.length() - 1));
+	}
+
+	private static List<Expression> commutativeOperands(final InfixExpression infixExpression, final List<Expression> operands) {
+		List<Expression> allOperands= new ArrayList<>(2 + infixExpression.extendedOperands().size());
+		allOperands.add(infixExpression.getLeftOperand());
+		allOperands.add(infixExpression.getRightOperand());
+		allOperands.addAll(infixExpression.extendedOperands());
+
+		for (Expression operand : allOperands) {
+			Expression unbracketedOperand= ASTNodes.getUnparenthesedExpression(operand);
+
+			if (unbracketedOperand instanceof InfixExpression
+					&& ASTNodes.hasOperator((InfixExpression) unbracketedOperand, infixExpression.getOperator())) {
+				commutativeOperands((InfixExpression) unbracketedOperand, operands);
+			} else if (!isNeutral(infixExpression.getOperator(), unbracketedOperand)) {
+				operands.add(unbracketedOperand);
+			}
+		}
+
+		return operands;
+	}
+
+	private static boolean isNeutral(final InfixExpression.Operator operator, final Expression operand) {
+		Long value;
+
+		if (InfixExpression.Operator.PLUS.equals(operator)) {
+			value= 0L;
+		} else if (InfixExpression.Operator.TIMES.equals(operator)) {
+			value= 1L;
+		} else {
+			return false;
+		}
+
+		return value.equals(ASTNodes.getIntegerLiteral(operand));
+	}
+
+	private static boolean isBoolean(final Expression expression) {
+		if (expression instanceof BooleanLiteral) {
+			return true;
+		}
+
+		if (expression instanceof PrefixExpression) {
+			return ASTNodes.hasOperator((PrefixExpression) expression, PrefixExpression.Operator.NOT);
+		}
+
+		if (expression instanceof InfixExpression) {
+			InfixExpression infixExpression= (InfixExpression) expression;
+
+			if (ASTNodes.hasOperator(infixExpression, InfixExpression.Operator.CONDITIONAL_AND, InfixExpression.Operator.CONDITIONAL_OR,
+					InfixExpression.Operator.EQUALS, InfixExpression.Operator.NOT_EQUALS, InfixExpression.Operator.GREATER,
+					InfixExpression.Operator.GREATER_EQUALS, InfixExpression.Operator.LESS, InfixExpression.Operator.LESS_EQUALS)
+					|| expression.resolveTypeBinding() == null
+					&& ASTNodes.hasOperator(infixExpression, InfixExpression.Operator.AND, InfixExpression.Operator.OR, InfixExpression.Operator.XOR)) {
+				return true;
+			}
+		}
+
+		return ASTNodes.hasType(expression, boolean.class.getSimpleName(), Boolean.class.getCanonicalName());
+	}
+
+	private static int hashStructure(final ASTNode node) {
+		int hash= node.getNodeType();
+
+		for (Object property : node.structuralPropertiesForType()) {
+			StructuralPropertyDescriptor descriptor= (StructuralPropertyDescriptor) property;
+
+			if (descriptor instanceof ChildPropertyDescriptor) {
+				hash= combine(hash, hash((ASTNode) node.getStructuralProperty(descriptor)));
+			} else if (descriptor instanceof ChildListPropertyDescriptor) {
+				hash= combine(hash, hash((List<ASTNode>) node.getStructuralProperty(descriptor)));
+			} else if (descriptor instanceof SimplePropertyDescriptor) {
+				hash= combine(hash, String.valueOf(node.getStructuralProperty(descriptor)).hashCode());
+			}
+		}
+
+		return hash;
+	}
+
+	private static int combine(final int hash, final int value) {
+		return 31 * hash + value;
+	}
+}
@@ -27,7 +27,22 @@ package org.autorefactor.jdt.internal.corext.dom;
 
 /**
  * Interrupt the visit of a tree.
+ * <p>
+ * It is thrown very often only to unwind the stack, so it has no stack trace
+ * and a single instance is reused.
  */
-public class AbortSearchException extends RuntimeException {
+public final class AbortSearchException extends RuntimeException {
+	/** The only instance. */
+	public static final AbortSearchException INSTANCE= new AbortSearchException();
+
 	private static final long serialVersionUID= 8809979732051907351L;
+
+	private AbortSearchException() {
+		super(null, null, false, false);
+	}
+
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this;
+	}
 }
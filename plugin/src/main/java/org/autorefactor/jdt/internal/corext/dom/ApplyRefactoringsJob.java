@@ -26,16 +26,21 @@
 package org.autorefactor.jdt.internal.corext.dom;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import org.autorefactor.environment.Environment;
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.refactoring.structure.CompilationUnitRewrite;
+import org.autorefactor.jdt.internal.corext.refactoring.structure.MethodReferenceIndex;
 import org.autorefactor.jdt.internal.ui.fix.AggregateASTVisitor;
 import org.autorefactor.util.IllegalStateException;
 import org.autorefactor.util.UnhandledException;
@@ -51,11 +56,19 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
 import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
+import org.eclipse.jface.text.IRegion;
+import org.eclipse.text.edits.ReplaceEdit;
 import org.eclipse.text.edits.TextEdit;
 
 /**
@@ -65,9 +78,20 @@ import org.eclipse.text.edits.TextEdit;
  * provided by the partitioner ({@link PrepareApplyRefactoringsJob}).
  */
 public class ApplyRefactoringsJob extends Job {
+	/** The family of the jobs applying the cleanups, to wait for all of them. */
+	public static final String FAMILY= PluginConstant.PLUGIN_ID + ".applyRefactorings"; //$NON-NLS-1$
+
+	private static final int MAX_ITERATIONS= 100;
+	/** The maximum number of units parsed together for their first pass. */
+	private static final int BATCH_SIZE= 16;
+
 	private final Queue<RefactoringUnit> refactoringUnits;
 	private final List<RefactoringRule> refactoringRulesToApply;
 	private final Environment environment;
+	private final CleanIndex cleanIndex;
+	private final Profiler profiler;
+	private final int nbWorkers;
+	private long eventLoopWaitNanos;
 
 	/**
 	 * Builds an instance of this class.
@@ -78,11 +102,36 @@ public class ApplyRefactoringsJob extends Job {
 	 */
 	public ApplyRefactoringsJob(final Queue<RefactoringUnit> refactoringUnits, final List<RefactoringRule> refactoringRulesToApply,
 			final Environment environment) {
+		this(refactoringUnits, refactoringRulesToApply, environment, null, null, 1);
+	}
+
+	/**
+	 * Builds an instance of this class.
+	 *
+	 * @param refactoringUnits        the units to automatically refactor
+	 * @param refactoringRulesToApply the cleanups to apply
+	 * @param environment             the environment
+	 * @param cleanIndex              the index where to record the units reaching
+	 *                                their fixpoint, may be null
+	 * @param profiler                the profiler of the run, null when the
+	 *                                profiling mode is off
+	 * @param nbWorkers               the number of workers sharing the queue
+	 */
+	ApplyRefactoringsJob(final Queue<RefactoringUnit> refactoringUnits, final List<RefactoringRule> refactoringRulesToApply,
+			final Environment environment, final CleanIndex cleanIndex, final Profiler profiler, final int nbWorkers) {
 		super("AutoRefactor"); //$NON-NLS-1$
 		setPriority(Job.LONG);
 		this.refactoringUnits= refactoringUnits;
 		this.refactoringRulesToApply= refactoringRulesToApply;
 		this.environment= environment;
+		this.cleanIndex= cleanIndex;
+		this.profiler= profiler;
+		this.nbWorkers= nbWorkers;
+	}
+
+	@Override
+	public boolean belongsTo(final Object family) {
+		return FAMILY.equals(family);
 	}
 
 	@Override
@@ -104,36 +153,140 @@ public class ApplyRefactoringsJob extends Job {
 	}
 
 	private IStatus run0(final IProgressMonitor monitor) throws Exception {
-		if (refactoringUnits.isEmpty()) {
-			// No java project exists.
-			return Status.OK_STATUS;
-		}
-
+		// Even a worker finding the queue empty must reach the finally block, so the profiler counts it down
+		boolean isDisjointEditsMode= environment.getPreferences() != null
+				&& environment.getPreferences().disjointEditsModeOn();
 		SubMonitor loopMonitor= SubMonitor.convert(monitor, refactoringUnits.size());
 		try {
-			RefactoringUnit toRefactor;
-			while ((toRefactor= refactoringUnits.poll()) != null && !loopMonitor.isCanceled()) {
-				ICompilationUnit compilationUnit= toRefactor.getCompilationUnit();
-				JavaProjectOptions options= toRefactor.getOptions();
-				try {
-					loopMonitor.subTask("Applying refactorings to " + getClassName(compilationUnit)); //$NON-NLS-1$
-					AggregateASTVisitor refactoring= new AggregateASTVisitor(refactoringRulesToApply);
-					applyRefactoring(compilationUnit, refactoring, options, loopMonitor.newChild(1), true);
-				} catch (OperationCanceledException e) {
-					throw e;
-				} catch (Exception e) {
-					String msg= "Exception when applying refactorings to file \"" + compilationUnit.getPath() //$NON-NLS-1$
-							+ "\": " + e.getMessage(); //$NON-NLS-1$
-					throw new UnhandledException(null, msg, e);
+			List<RefactoringUnit> batch;
+			while (!loopMonitor.isCanceled() && !(batch= pollBatch()).isEmpty()) {
+				Map<ICompilationUnit, ParsedUnit> parsedUnits= parseBatch(batch);
+
+				for (RefactoringUnit toRefactor : batch) {
+					ICompilationUnit compilationUnit= toRefactor.getCompilationUnit();
+					JavaProjectOptions options= toRefactor.getOptions();
+					try {
+						loopMonitor.subTask("Applying refactorings to " + getClassName(compilationUnit)); //$NON-NLS-1$
+						AggregateASTVisitor refactoring= new AggregateASTVisitor(refactoringRulesToApply);
+						if (profiler != null) {
+							refactoring.startProfiling();
+						}
+						if (isDisjointEditsMode) {
+							refactoring.enableDisjointEdits();
+						}
+						long startTime= System.nanoTime();
+						List<TextEdit> textEdits= applyRefactoring(compilationUnit, parsedUnits.remove(compilationUnit),
+								refactoring, options, loopMonitor.newChild(1), true);
+						RefactoringCosts.record(compilationUnit, System.nanoTime() - startTime);
+						if (profiler != null) {
+							refactoring.reportProfile(profiler);
+						}
+
+						// More passes than allowed means the infinite loop detection stopped the cleanups
+						if (cleanIndex != null && textEdits != null && textEdits.size() <= MAX_ITERATIONS
+								&& !refactoring.hasFaultyVisitors()) {
+							cleanIndex.recordClean(compilationUnit, options);
+						}
+					} catch (OperationCanceledException e) {
+						throw e;
+					} catch (Exception e) {
+						String msg= "Exception when applying refactorings to file \"" + compilationUnit.getPath() //$NON-NLS-1$
+								+ "\": " + e.getMessage(); //$NON-NLS-1$
+						throw new UnhandledException(null, msg, e);
+					}
 				}
 			}
 		} finally {
 			loopMonitor.done();
+			reportEventLoopWait();
+			if (cleanIndex != null) {
+				cleanIndex.save();
+			}
+			if (profiler != null) {
+				profiler.workerDone(environment.getLogger());
+			}
 		}
 
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Takes the next units to refactor from the shared queue. They all come from
+	 * the same Java project, so they can be parsed together.
+	 * <p>
+	 * A batch takes no more than its share of the remaining units. Since the most
+	 * expensive units come first, a worker does not keep them all while the other
+	 * workers are idle, nor all their ASTs in memory at the same time.
+	 */
+	private List<RefactoringUnit> pollBatch() {
+		int batchSize= Math.max(1, Math.min(BATCH_SIZE, refactoringUnits.size() / nbWorkers));
+		List<RefactoringUnit> batch= new ArrayList<>(batchSize);
+		RefactoringUnit toRefactor;
+		while (batch.size() < batchSize && (toRefactor= refactoringUnits.poll()) != null) {
+			if (!batch.isEmpty() && !batch.get(0).getCompilationUnit().getJavaProject()
+					.equals(toRefactor.getCompilationUnit().getJavaProject())) {
+				// Leave it to the next batch
+				refactoringUnits.add(toRefactor);
+				break;
+			}
+			batch.add(toRefactor);
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Parses the first pass of the units together, so the lookup environment
+	 * resolving the bindings is shared instead of being rebuilt for each unit.
+	 */
+	private Map<ICompilationUnit, ParsedUnit> parseBatch(final List<RefactoringUnit> batch) throws JavaModelException {
+		final Map<ICompilationUnit, ParsedUnit> parsedUnits= new HashMap<>();
+		if (batch.size() < 2) {
+			// Nothing to share
+			return parsedUnits;
+		}
+
+		ICompilationUnit[] compilationUnits= new ICompilationUnit[batch.size()];
+		final Map<ICompilationUnit, String> sources= new HashMap<>();
+		for (int i= 0; i < compilationUnits.length; i++) {
+			compilationUnits[i]= batch.get(i).getCompilationUnit();
+			sources.put(compilationUnits[i], compilationUnits[i].getSource());
+		}
+
+		@SuppressWarnings("deprecation")
+		ASTParser parser= ASTParser.newParser(AST.JLS8);
+		parser.setProject(compilationUnits[0].getJavaProject());
+		parser.setResolveBindings(true);
+		parser.setCompilerOptions(batch.get(0).getOptions().getCompilerOptions());
+		parser.createASTs(compilationUnits, new String[0], new ASTRequestor() {
+			@Override
+			public void acceptAST(final ICompilationUnit source, final CompilationUnit ast) {
+				parsedUnits.put(source, new ParsedUnit(ast, sources.get(source)));
+			}
+		}, null);
+
+		return parsedUnits;
+	}
+
+	/** An AST parsed ahead of time, with the source it has been parsed from. */
+	private static final class ParsedUnit {
+		private final CompilationUnit astRoot;
+		private final String source;
+
+		private ParsedUnit(final CompilationUnit astRoot, final String source) {
+			this.astRoot= astRoot;
+			this.source= source;
+		}
+	}
+
+	private void reportEventLoopWait() {
+		if (eventLoopWaitNanos > 0) {
+			environment.getLogger().info(getName() + " worker waited " //$NON-NLS-1$
+					+ TimeUnit.NANOSECONDS.toMillis(eventLoopWaitNanos)
+					+ " ms for the event loop to apply edits to files opened in editors"); //$NON-NLS-1$
+		}
+	}
+
 	private String getClassName(final ICompilationUnit compilationUnit) {
 		String elName= compilationUnit.getElementName();
 		String simpleName= elName.substring(0, elName.lastIndexOf('.'));
@@ -158,6 +311,12 @@ public class ApplyRefactoringsJob extends Job {
 	 */
 	public List<TextEdit> applyRefactoring(final ICompilationUnit compilationUnit, final AggregateASTVisitor refactoringToApply,
 			final JavaProjectOptions options, final SubMonitor monitor, final boolean hasToSave) throws Exception {
+		return applyRefactoring(compilationUnit, null, refactoringToApply, options, monitor, hasToSave);
+	}
+
+	private List<TextEdit> applyRefactoring(final ICompilationUnit compilationUnit, final ParsedUnit parsedUnit,
+			final AggregateASTVisitor refactoringToApply, final JavaProjectOptions options, final SubMonitor monitor,
+			final boolean hasToSave) throws Exception {
 		ITextFileBufferManager bufferManager= FileBuffers.getTextFileBufferManager();
 		IPath path= compilationUnit.getPath();
 		LocationKind locationKind= LocationKind.NORMALIZE;
@@ -177,7 +336,12 @@ public class ApplyRefactoringsJob extends Job {
 				return null;
 			}
 			IDocument document= textFileBuffer.getDocument();
-			textEdits= applyRefactoring(document, compilationUnit, refactoringToApply, options, monitor, hasToSave);
+			// The AST parsed ahead of time is useless if the file changed since then
+			CompilationUnit parsedAstRoot= parsedUnit != null && document.get().equals(parsedUnit.source)
+					? parsedUnit.astRoot
+					: null;
+			textEdits= applyRefactoring(document, compilationUnit, parsedAstRoot, refactoringToApply, options, monitor,
+					hasToSave, textFileBuffer, false);
 		} finally {
 			bufferManager.disconnect(path, locationKind, null);
 		}
@@ -214,81 +378,278 @@ public class ApplyRefactoringsJob extends Job {
 	public List<TextEdit> applyRefactoring(final IDocument document, final ICompilationUnit compilationUnit,
 			final AggregateASTVisitor refactoring, final JavaProjectOptions options, final SubMonitor monitor, final boolean hasToSave)
 			throws Exception {
+		return applyRefactoring(document, compilationUnit, refactoring, options, monitor, hasToSave, true);
+	}
+
+	/**
+	 * Applies the cleanups provided inside the {@link AggregateASTVisitor} to
+	 * the provided {@link ICompilationUnit}.
+	 *
+	 * @param document        the document where the compilation unit comes from
+	 * @param compilationUnit the compilation unit to refactor
+	 * @param refactoring     the {@link AggregateASTVisitor} to apply to the
+	 *                        compilation unit
+	 * @param options         the Java project options used to compile the project
+	 * @param monitor         the progress monitor of the current job
+	 * @param hasToSave       hasToSave
+	 * @param isBoundToEditor true if the document may be displayed in an editor,
+	 *                        false if the edits can be applied outside of the event
+	 *                        loop
+	 * @return TextEdit
+	 * @throws Exception if any problem occurs
+	 */
+	public List<TextEdit> applyRefactoring(final IDocument document, final ICompilationUnit compilationUnit,
+			final AggregateASTVisitor refactoring, final JavaProjectOptions options, final SubMonitor monitor, final boolean hasToSave,
+			final boolean isBoundToEditor) throws Exception {
+		return applyRefactoring(document, compilationUnit, null, refactoring, options, monitor, hasToSave, null,
+				isBoundToEditor);
+	}
+
+	/**
+	 * Runs the passes until the compilation unit is stable.
+	 *
+	 * @param textFileBuffer  the buffer of the document, asked before each pass
+	 *                        whether an editor has connected to it since, or null
+	 * @param isBoundToEditor whether the document may be displayed in an editor
+	 *                        when the buffer is unknown
+	 */
+	private List<TextEdit> applyRefactoring(final IDocument document, final ICompilationUnit compilationUnit,
+			final CompilationUnit parsedAstRoot, final AggregateASTVisitor refactoring, final JavaProjectOptions options,
+			final SubMonitor monitor, final boolean hasToSave, final ITextFileBuffer textFileBuffer,
+			final boolean isBoundToEditor) throws Exception {
 		// Creation of DOM/AST from a ICompilationUnit
 		@SuppressWarnings("deprecation")
 		ASTParser parser= ASTParser.newParser(AST.JLS8);
 
-		int maxIterations= 100;
+		int maxIterations= MAX_ITERATIONS;
 		int iterationCount= 0;
 		Set<ASTVisitor> lastLoopVisitors= Collections.emptySet();
 		int nbLoopsWithSameVisitors= 0;
 
 		List<TextEdit> textEdits= new ArrayList<>();
+		boolean isIncremental= hasToSave && environment.getPreferences() != null
+				&& environment.getPreferences().incrementalModeOn();
+		List<IRegion> changedRegions= null;
+		List<IRegion> lastChangedRegions= null;
 
 		monitor.setWorkRemaining(maxIterations);
 
+		long parseNanos= 0;
+		long visitNanos= 0;
+		long rewriteNanos= 0;
+		long saveNanos= 0;
 		CompilationUnit astRoot;
-		do {
-			// I did not find any other way to directly modify the AST
-			// while still keeping the resolved type bindings working.
-			// Using astRoot.recordModifications() did not work:
-			// type bindings were lost. Is there a way to recover them?
-			// FIXME we should find a way to apply all the changes at
-			// the AST level and refresh the bindings
-			resetParser(compilationUnit, parser, options);
-			astRoot= (CompilationUnit) parser.createAST(null);
-
-			if (iterationCount > maxIterations) {
-				// Oops! Something went wrong.
-				String errorMsg= "An infinite loop has been detected for file " + ASTNodes.getFileName(astRoot) + "." //$NON-NLS-1$ //$NON-NLS-2$
-						+ " A possible cause is that code is being incorrectly" //$NON-NLS-1$
-						+ " refactored one way then refactored back to what it was." + " Fix the code before pursuing." //$NON-NLS-1$ //$NON-NLS-2$
-						+ getPossibleCulprits(nbLoopsWithSameVisitors, lastLoopVisitors);
-				environment.getLogger().error(errorMsg, new IllegalStateException(astRoot, errorMsg));
-				break;
-			}
+		try {
+			do {
+				// I did not find any other way to directly modify the AST
+				// while still keeping the resolved type bindings working.
+				// Using astRoot.recordModifications() did not work:
+				// type bindings were lost. Is there a way to recover them?
+				// FIXME we should find a way to apply all the changes at
+				// the AST level and refresh the bindings
+				long phaseStart= System.nanoTime();
+				if (iterationCount == 0 && parsedAstRoot != null) {
+					astRoot= parsedAstRoot;
+				} else {
+					resetParser(compilationUnit, parser, options);
+					astRoot= (CompilationUnit) parser.createAST(null);
+				}
+				parseNanos+= System.nanoTime() - phaseStart;
 
-			CompilationUnitRewrite cuRewrite= new CompilationUnitRewrite(compilationUnit, astRoot, options, monitor,
-					environment);
-			refactoring.setRefactoringContext(cuRewrite);
+				if (iterationCount > maxIterations) {
+					// Oops! Something went wrong.
+					String errorMsg= "An infinite loop has been detected for file " + ASTNodes.getFileName(astRoot) + "." //$NON-NLS-1$ //$NON-NLS-2$
+							+ " A possible cause is that code is being incorrectly" //$NON-NLS-1$
+							+ " refactored one way then refactored back to what it was." + " Fix the code before pursuing." //$NON-NLS-1$ //$NON-NLS-2$
+							+ getPossibleCulprits(nbLoopsWithSameVisitors, lastLoopVisitors);
+					environment.getLogger().error(errorMsg, new IllegalStateException(astRoot, errorMsg));
+					break;
+				}
 
-			ASTRewrite refactorings= refactoring.getRefactorings(astRoot);
-			if (!refactorings.hasRefactorings()) {
-				// No new cleanups have been applied,
-				// We are done with applying the cleanups.
-				break;
-			}
+				phaseStart= System.nanoTime();
+				CompilationUnitRewrite cuRewrite= new CompilationUnitRewrite(compilationUnit, astRoot, options, monitor,
+						environment);
+				refactoring.setRefactoringContext(cuRewrite);
 
-			// Apply the cleanups and save the compilation unit
-			refactorings.applyTo(document, hasToSave);
-			textEdits.add(refactorings.getEdits());
-			if (!hasToSave) {
-				return textEdits;
+				// Only the rules matching the changed nodes are likely to find new cleanups
+				BitSet changedNodeTypes= lastChangedRegions != null
+						? ChangedNodeTypes.find(astRoot, lastChangedRegions)
+						: null;
+				boolean isRestricted= refactoring.restrictToNodeTypes(changedNodeTypes);
+				List<Block> changedBodies= changedRegions != null
+						? ChangedBodyDeclarations.find(astRoot, changedRegions)
+						: null;
+				ASTRewrite refactorings;
+				if (changedBodies != null) {
+					refactorings= refactoring.getRefactorings(changedBodies);
+				} else {
+					refactorings= refactoring.getRefactorings(astRoot);
+				}
+
+				if (!refactorings.hasRefactorings() && (changedBodies != null || isRestricted)) {
+					// The changed code is stable: make sure the rest of the file is too, for all the rules
+					cuRewrite= new CompilationUnitRewrite(compilationUnit, astRoot, options, monitor, environment);
+					refactoring.setRefactoringContext(cuRewrite);
+					refactoring.restrictToNodeTypes(null);
+					refactorings= refactoring.getRefactorings(astRoot);
+				}
+				visitNanos+= System.nanoTime() - phaseStart;
+
+				if (!refactorings.hasRefactorings()) {
+					// No new cleanups have been applied,
+					// We are done with applying the cleanups.
+					break;
+				}
+
+				// Apply the cleanups and save the compilation unit
+				phaseStart= System.nanoTime();
+				// Another client of the buffer, like an editor, may have been opened during the previous passes
+				refactorings.applyTo(document, hasToSave,
+						textFileBuffer != null ? textFileBuffer.isShared() : isBoundToEditor);
+				rewriteNanos+= System.nanoTime() - phaseStart;
+				eventLoopWaitNanos+= refactorings.getEventLoopWaitNanos();
+				textEdits.add(refactorings.getEdits());
+				if (!hasToSave) {
+					return textEdits;
+				}
+				// Import changes shift the whole file and may change the bindings
+				lastChangedRegions= !refactorings.hasImportChanges() ? refactorings.getChangedRegions() : null;
+				changedRegions= isIncremental ? lastChangedRegions : null;
+				boolean hadUnsavedChanges= compilationUnit.hasUnsavedChanges();
+				compilationUnit.getBuffer().setContents(document.get());
+				// http://wiki.eclipse.org/FAQ_What_is_a_working_copy%3F
+				// compilationUnit.reconcile(AST.JLS8,
+				// ICompilationUnit.ENABLE_BINDINGS_RECOVERY |
+				// ICompilationUnit.ENABLE_STATEMENTS_RECOVERY |
+				// ICompilationUnit.FORCE_PROBLEM_DETECTION
+				// /** can be useful to back out a change that does not compile */
+				// , null, null);
+				if (!hadUnsavedChanges && hasToSave) {
+					phaseStart= System.nanoTime();
+					compilationUnit.save(null, true);
+					saveNanos+= System.nanoTime() - phaseStart;
+				}
+				iterationCount++;
+
+				Set<ASTVisitor> thisLoopVisitors= refactoring.getVisitorsContributingRefactoring();
+				if (thisLoopVisitors.equals(lastLoopVisitors)) {
+					nbLoopsWithSameVisitors++;
+				} else {
+					lastLoopVisitors= new HashSet<>(thisLoopVisitors);
+					nbLoopsWithSameVisitors= 0;
+				}
+			} while (true);
+		} finally {
+			if (profiler != null) {
+				profiler.recordFile(compilationUnit.getPath().toString(), iterationCount, parseNanos, visitNanos,
+						rewriteNanos, saveNanos);
 			}
-			boolean hadUnsavedChanges= compilationUnit.hasUnsavedChanges();
-			compilationUnit.getBuffer().setContents(document.get());
-			// http://wiki.eclipse.org/FAQ_What_is_a_working_copy%3F
-			// compilationUnit.reconcile(AST.JLS8,
-			// ICompilationUnit.ENABLE_BINDINGS_RECOVERY |
-			// ICompilationUnit.ENABLE_STATEMENTS_RECOVERY |
-			// ICompilationUnit.FORCE_PROBLEM_DETECTION
-			// /** can be useful to back out a change that does not compile */
-			// , null, null);
-			if (!hadUnsavedChanges && hasToSave) {
-				compilationUnit.save(null, true);
+		}
+
+		return textEdits;
+	}
+
+	/**
+	 * Applies the cleanups provided inside the {@link AggregateASTVisitor} to
+	 * the provided AST for a save action. The first pass reuses the provided AST.
+	 * The following passes are run on an in-memory working copy as long as the
+	 * time budget is not exhausted. The compilation unit is not modified.
+	 *
+	 * @param astRoot          the AST of the compilation unit to refactor, with
+	 *                         resolved bindings
+	 * @param refactoring      the {@link AggregateASTVisitor} to apply to the
+	 *                         compilation unit
+	 * @param options          the Java project options used to compile the project
+	 * @param monitor          the progress monitor of the current job
+	 * @param timeBudgetMillis the time allowed for the passes following the first
+	 *                         one, in milliseconds
+	 * @return the edit turning the source of the compilation unit into the
+	 *         refactored source, or null if there is nothing to refactor
+	 * @throws Exception if any problem occurs
+	 */
+	public TextEdit applyRefactoringOnSave(final CompilationUnit astRoot, final AggregateASTVisitor refactoring,
+			final JavaProjectOptions options, final SubMonitor monitor, final long timeBudgetMillis) throws Exception {
+		long deadline= System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+		ICompilationUnit compilationUnit= (ICompilationUnit) astRoot.getJavaElement();
+		String originalSource= compilationUnit.getSource();
+		// The edits are applied to this document only, nobody else looks at it
+		IDocument document= new Document(originalSource);
+		// The caches are shared with the runs in progress, so only forget what the saved file
+		// can change: how the calls of its package resolve. The type name and method
+		// signature caches only hold binary types, which a save cannot change
+		MethodReferenceIndex.getInstance().invalidate((IPackageFragment) compilationUnit.getParent());
+
+		if (!applyOnePass(compilationUnit, astRoot, document, refactoring, options, monitor)) {
+			return null;
+		}
+
+		ICompilationUnit workingCopy= null;
+		try {
+			@SuppressWarnings("deprecation")
+			ASTParser parser= ASTParser.newParser(AST.JLS8);
+
+			for (int iterationCount= 1; iterationCount < MAX_ITERATIONS && System.nanoTime() < deadline; iterationCount++) {
+				if (workingCopy == null) {
+					// A private working copy, so the editor buffer is left untouched
+					workingCopy= compilationUnit.getPrimary().getWorkingCopy(new WorkingCopyOwner() {
+					}, null);
+				}
+				workingCopy.getBuffer().setContents(document.get());
+				resetParser(workingCopy, parser, options);
+				CompilationUnit newAstRoot= (CompilationUnit) parser.createAST(null);
+
+				if (!applyOnePass(workingCopy, newAstRoot, document, refactoring, options, monitor)) {
+					break;
+				}
 			}
-			iterationCount++;
-
-			Set<ASTVisitor> thisLoopVisitors= refactoring.getVisitorsContributingRefactoring();
-			if (thisLoopVisitors.equals(lastLoopVisitors)) {
-				nbLoopsWithSameVisitors++;
-			} else {
-				lastLoopVisitors= new HashSet<>(thisLoopVisitors);
-				nbLoopsWithSameVisitors= 0;
+		} finally {
+			if (workingCopy != null) {
+				workingCopy.discardWorkingCopy();
 			}
-		} while (true);
+		}
 
-		return textEdits;
+		return toMinimalEdit(originalSource, document.get());
+	}
+
+	private boolean applyOnePass(final ICompilationUnit compilationUnit, final CompilationUnit astRoot,
+			final IDocument document, final AggregateASTVisitor refactoring, final JavaProjectOptions options,
+			final SubMonitor monitor) throws Exception {
+		CompilationUnitRewrite cuRewrite= new CompilationUnitRewrite(compilationUnit, astRoot, options, monitor,
+				environment);
+		refactoring.setRefactoringContext(cuRewrite);
+		ASTRewrite refactorings= refactoring.getRefactorings(astRoot);
+
+		if (!refactorings.hasRefactorings()) {
+			return false;
+		}
+
+		refactorings.applyTo(document, true, false);
+		return true;
+	}
+
+	/**
+	 * Returns a single edit only replacing the part of the source that differs,
+	 * so the editor keeps its markers and selection on the rest of the file.
+	 */
+	private static TextEdit toMinimalEdit(final String oldSource, final String newSource) {
+		int maxLength= Math.min(oldSource.length(), newSource.length());
+		int prefixLength= 0;
+		while (prefixLength < maxLength && oldSource.charAt(prefixLength) == newSource.charAt(prefixLength)) {
+			prefixLength++;
+		}
+
+		if (prefixLength == oldSource.length() && prefixLength == newSource.length()) {
+			return null;
+		}
+
+		int suffixLength= 0;
+		while (suffixLength < maxLength - prefixLength
+				&& oldSource.charAt(oldSource.length() - 1 - suffixLength) == newSource.charAt(newSource.length() - 1 - suffixLength)) {
+			suffixLength++;
+		}
+
+		return new ReplaceEdit(prefixLength, oldSource.length() - prefixLength - suffixLength,
+				newSource.substring(prefixLength, newSource.length() - suffixLength));
 	}
 
 	private static void resetParser(final ICompilationUnit cu, final ASTParser parser, final JavaProjectOptions options) {
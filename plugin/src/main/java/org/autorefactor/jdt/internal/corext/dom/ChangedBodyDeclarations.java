@@ -0,0 +1,115 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * Finds the body declarations whose code has been changed by the previous
+ * cleanup pass, so the next pass only revisits them.
+ */
+public final class ChangedBodyDeclarations {
+	private ChangedBodyDeclarations() {
+	}
+
+	/**
+	 * Returns the bodies of the outermost methods and initializers containing the
+	 * provided changed regions. Only the bodies are returned, so the Javadoc and
+	 * the signature of the members are not visited again.
+	 *
+	 * @param astRoot        the compilation unit reparsed after the changes
+	 * @param changedRegions the regions changed by the previous pass, expressed in
+	 *                       the coordinates of the reparsed source
+	 * @return the method bodies to revisit, or null if a change escapes the method
+	 *         bodies (signatures, fields, types...) and the whole compilation unit
+	 *         must be revisited
+	 */
+	public static List<Block> find(final CompilationUnit astRoot, final List<IRegion> changedRegions) {
+		if (changedRegions.isEmpty()) {
+			return null;
+		}
+
+		Set<Block> results= new LinkedHashSet<>();
+		for (IRegion changedRegion : changedRegions) {
+			BodyDeclaration bodyDeclaration= findOutermostBodyDeclaration(astRoot, changedRegion);
+
+			if (bodyDeclaration == null) {
+				return null;
+			}
+
+			results.add(getBody(bodyDeclaration));
+		}
+
+		return new ArrayList<>(results);
+	}
+
+	private static BodyDeclaration findOutermostBodyDeclaration(final CompilationUnit astRoot, final IRegion changedRegion) {
+		ASTNode node= new NodeFinder(astRoot, changedRegion.getOffset(), changedRegion.getLength()).getCoveringNode();
+		BodyDeclaration result= null;
+
+		while (node != null) {
+			Block body= getBody(node);
+
+			if (body != null && isStrictlyInside(changedRegion, body)) {
+				result= (BodyDeclaration) node;
+			}
+
+			node= node.getParent();
+		}
+
+		return result;
+	}
+
+	private static Block getBody(final ASTNode node) {
+		if (node instanceof MethodDeclaration) {
+			return ((MethodDeclaration) node).getBody();
+		}
+
+		if (node instanceof Initializer) {
+			return ((Initializer) node).getBody();
+		}
+
+		return null;
+	}
+
+	private static boolean isStrictlyInside(final IRegion region, final Block body) {
+		// The curly braces must be left untouched
+		return body.getStartPosition() < region.getOffset()
+				&& region.getOffset() + region.getLength() < SourceLocation.getEndPosition(body);
+	}
+}
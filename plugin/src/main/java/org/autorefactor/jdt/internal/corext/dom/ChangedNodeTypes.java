@@ -0,0 +1,88 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jface.text.IRegion;
+
+/**
+ * Finds the types of the nodes changed by the previous cleanup pass, so the
+ * next pass only runs the rules matching them.
+ */
+public final class ChangedNodeTypes {
+	private ChangedNodeTypes() {
+	}
+
+	/**
+	 * Returns the types of the nodes overlapping the provided changed regions. The
+	 * ancestors of the smallest node covering a region are left out: almost all
+	 * the rules visit them.
+	 *
+	 * @param astRoot        the compilation unit reparsed after the changes
+	 * @param changedRegions the regions changed by the previous pass, expressed in
+	 *                       the coordinates of the reparsed source
+	 * @return the node types, see {@link ASTNode#getNodeType()}, or null if there
+	 *         is no changed region and all the rules must be run
+	 */
+	public static BitSet find(final CompilationUnit astRoot, final List<IRegion> changedRegions) {
+		if (changedRegions.isEmpty()) {
+			return null;
+		}
+
+		final BitSet results= new BitSet();
+		for (final IRegion changedRegion : changedRegions) {
+			ASTNode coveringNode= new NodeFinder(astRoot, changedRegion.getOffset(), changedRegion.getLength())
+					.getCoveringNode();
+
+			if (coveringNode != null) {
+				coveringNode.accept(new ASTVisitor() {
+					@Override
+					public boolean preVisit2(final ASTNode node) {
+						if (!overlaps(node, changedRegion)) {
+							return false;
+						}
+
+						results.set(node.getNodeType());
+						return true;
+					}
+				});
+			}
+		}
+
+		return results;
+	}
+
+	private static boolean overlaps(final ASTNode node, final IRegion region) {
+		return node.getStartPosition() <= region.getOffset() + region.getLength()
+				&& region.getOffset() <= SourceLocation.getEndPosition(node);
+	}
+}
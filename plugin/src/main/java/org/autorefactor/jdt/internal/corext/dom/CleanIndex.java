@@ -0,0 +1,191 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.autorefactor.environment.Logger;
+import org.autorefactor.util.UnhandledException;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.osgi.framework.Bundle;
+
+/**
+ * Persistent index of the compilation units left unchanged by a previous run,
+ * so they can be skipped before being parsed.
+ * <p>
+ * A compilation unit is clean for a digest of its content, of the cleanup rules
+ * applied, of the version of this plugin and of the compiler options. Changing
+ * any of them makes the compilation unit dirty again.
+ */
+final class CleanIndex {
+	private static final String INDEX_FILE_NAME= "clean-index.properties"; //$NON-NLS-1$
+
+	private final Path indexFile;
+	private final Logger logger;
+	private final String rulesKey;
+	private final Map<JavaProjectOptions, byte[]> configurationDigests= new ConcurrentHashMap<>();
+	/** Digest of each clean compilation unit, indexed by workspace path. */
+	private final Properties cleanDigests= new Properties();
+	private boolean isDirty;
+
+	/**
+	 * Builds an instance of this class and loads the index of the previous runs.
+	 *
+	 * @param refactoringRules the cleanup rules applied during this run
+	 * @param logger           the logger
+	 */
+	CleanIndex(final List<RefactoringRule> refactoringRules, final Logger logger) {
+		Bundle bundle= Platform.getBundle(PluginConstant.PLUGIN_ID);
+		this.indexFile= Platform.getStateLocation(bundle).append(INDEX_FILE_NAME).toFile().toPath();
+		this.logger= logger;
+
+		TreeSet<String> ruleNames= new TreeSet<>();
+		for (RefactoringRule refactoringRule : refactoringRules) {
+			ruleNames.add(refactoringRule.getClass().getName());
+		}
+		this.rulesKey= ruleNames + bundle.getVersion().toString();
+
+		if (Files.exists(indexFile)) {
+			try (InputStream in= Files.newInputStream(indexFile)) {
+				cleanDigests.load(in);
+			} catch (IOException e) {
+				logger.error("Cannot read the index of the clean files " + indexFile, e); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the compilation unit has been left unchanged by a previous
+	 * run with the same configuration.
+	 *
+	 * @param compilationUnit the compilation unit
+	 * @param options         the Java project options
+	 * @return true if the compilation unit does not need to be refactored
+	 */
+	boolean isClean(final ICompilationUnit compilationUnit, final JavaProjectOptions options) {
+		String previousDigest= cleanDigests.getProperty(getKey(compilationUnit));
+		return previousDigest != null && previousDigest.equals(digest(compilationUnit, options));
+	}
+
+	/**
+	 * Records that the compilation unit has reached its fixpoint with the current
+	 * configuration.
+	 *
+	 * @param compilationUnit the compilation unit
+	 * @param options         the Java project options
+	 */
+	synchronized void recordClean(final ICompilationUnit compilationUnit, final JavaProjectOptions options) {
+		String digest= digest(compilationUnit, options);
+		if (digest != null) {
+			cleanDigests.setProperty(getKey(compilationUnit), digest);
+			isDirty= true;
+		}
+	}
+
+	/** Writes the index to the disk if it has changed. */
+	synchronized void save() {
+		if (!isDirty) {
+			return;
+		}
+
+		try (OutputStream out= Files.newOutputStream(indexFile)) {
+			cleanDigests.store(out, null);
+			isDirty= false;
+		} catch (IOException e) {
+			logger.error("Cannot write the index of the clean files " + indexFile, e); //$NON-NLS-1$
+		}
+	}
+
+	private String getKey(final ICompilationUnit compilationUnit) {
+		return compilationUnit.getPath().toString();
+	}
+
+	/**
+	 * Returns the digest of the compilation unit, or null if it cannot be
+	 * computed.
+	 */
+	private String digest(final ICompilationUnit compilationUnit, final JavaProjectOptions options) {
+		try {
+			if (!(compilationUnit.getResource() instanceof IFile) || compilationUnit.hasUnsavedChanges()) {
+				// The editor content is not the file content
+				return null;
+			}
+
+			MessageDigest messageDigest= newMessageDigest();
+			messageDigest.update(configurationDigests.computeIfAbsent(options, this::digestConfiguration));
+			try (InputStream in= ((IFile) compilationUnit.getResource()).getContents(true)) {
+				byte[] buffer= new byte[8192];
+				int length;
+				while ((length= in.read(buffer)) != -1) {
+					messageDigest.update(buffer, 0, length);
+				}
+			}
+
+			return toHexString(messageDigest.digest());
+		} catch (CoreException | IOException e) {
+			return null;
+		}
+	}
+
+	private byte[] digestConfiguration(final JavaProjectOptions options) {
+		String configuration= rulesKey + options.getJavaSERelease() + new TreeMap<>(options.getCompilerOptions());
+		return newMessageDigest().digest(configuration.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static MessageDigest newMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform must support SHA-256
+			throw new UnhandledException(null, e);
+		}
+	}
+
+	private static String toHexString(final byte[] bytes) {
+		StringBuilder sb= new StringBuilder(2 * bytes.length);
+		for (byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+
+		return sb.toString();
+	}
+}
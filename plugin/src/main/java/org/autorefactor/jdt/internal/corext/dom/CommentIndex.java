@@ -0,0 +1,127 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.Comment;
+
+/**
+ * Comments of a compilation unit sorted by start position, answering the
+ * position and range queries with a binary search.
+ * <p>
+ * The comments never overlap, so their end positions are sorted too.
+ */
+public final class CommentIndex {
+	private final Comment[] comments;
+	private final int[] startPositions;
+	private final int[] endPositions;
+
+	/**
+	 * Builds an instance of this class.
+	 *
+	 * @param commentList the comments of the compilation unit
+	 */
+	public CommentIndex(final List<Comment> commentList) {
+		comments= commentList.toArray(new Comment[commentList.size()]);
+
+		if (!isSorted(comments)) {
+			Arrays.sort(comments, ASTNodes.ORDER_NODES_BY_START_POSITION);
+		}
+
+		startPositions= new int[comments.length];
+		endPositions= new int[comments.length];
+
+		for (int i= 0; i < comments.length; i++) {
+			startPositions[i]= comments[i].getStartPosition();
+			endPositions[i]= SourceLocation.getEndPosition(comments[i]);
+		}
+	}
+
+	private static boolean isSorted(final Comment[] comments) {
+		for (int i= 1; i < comments.length; i++) {
+			if (comments[i - 1].getStartPosition() > comments[i].getStartPosition()) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns whether the provided position is inside a comment, end position
+	 * included.
+	 *
+	 * @param position the position
+	 * @return true if the provided position is inside a comment, false otherwise
+	 */
+	public boolean isInComment(final int position) {
+		// Only the last comment starting before the position can surround it
+		int index= indexOfFirstAbove(startPositions, 0, position) - 1;
+		return index >= 0 && position <= endPositions[index];
+	}
+
+	/**
+	 * Comments completely contained in range ordered by start position.
+	 *
+	 * @param start start of range
+	 * @param end end of range (exclusive)
+	 * @return comments
+	 */
+	public List<Comment> getCommentsInRange(final int start, final int end) {
+		int fromIndex= indexOfFirstAbove(startPositions, 0, start - 1);
+		int toIndex= indexOfFirstAbove(endPositions, fromIndex, end);
+
+		if (fromIndex == toIndex) {
+			return Collections.emptyList();
+		}
+
+		return Collections.unmodifiableList(Arrays.asList(comments).subList(fromIndex, toIndex));
+	}
+
+	/**
+	 * Returns the index of the first sorted position strictly greater than the
+	 * provided position, or the number of positions if there is none.
+	 */
+	private static int indexOfFirstAbove(final int[] positions, final int fromIndex, final int position) {
+		int low= fromIndex;
+		int high= positions.length;
+
+		while (low < high) {
+			int middle= (low + high) >>> 1;
+
+			if (positions[middle] <= position) {
+				low= middle + 1;
+			} else {
+				high= middle;
+			}
+		}
+
+		return low;
+	}
+}
@@ -297,14 +297,14 @@ public final class ControlWorkflowMatcher implements ControlWorkflowMatcherCompl
 		if (actualNode.getCondition() == null) {
 			if (actualNode.getThenNode() != null || actualNode.getElseNode() != null
 					|| (actualNode.getReturnedValue() == null && actualNode.getFinalStatement() == null)) {
-				throw new AbortSearchException();
+				throw AbortSearchException.INSTANCE;
 			}
 
 			actualLastNodes.add(actualNode.getId());
 		} else {
 			if (actualNode.getThenNode() == null || actualNode.getElseNode() == null
 					|| actualNode.getReturnedValue() != null || actualNode.getFinalStatement() != null) {
-				throw new AbortSearchException();
+				throw AbortSearchException.INSTANCE;
 			}
 
 			collectActualLastNodes(actualNode.getThenNode(), actualLastNodes);
@@ -420,7 +420,7 @@ public final class ControlWorkflowMatcher implements ControlWorkflowMatcherCompl
 
 	private ControlWorkflowNode buildActualNodes(final Statement actualStatement) {
 		if (actualStatement == null) {
-			throw new AbortSearchException();
+			throw AbortSearchException.INSTANCE;
 		}
 
 		return buildActualNodes(ASTNodes.asList(actualStatement));
@@ -428,7 +428,7 @@ public final class ControlWorkflowMatcher implements ControlWorkflowMatcherCompl
 
 	private ControlWorkflowNode buildActualNodes(final List<Statement> actualStatements) {
 		if (Utils.isEmpty(actualStatements)) {
-			throw new AbortSearchException();
+			throw AbortSearchException.INSTANCE;
 		}
 
 		IfStatement ifStatement= ASTNodes.as(actualStatements.get(0), IfStatement.class);
@@ -446,7 +446,7 @@ public final class ControlWorkflowMatcher implements ControlWorkflowMatcherCompl
 
 			if (ifStatement.getElseStatement() != null || actualStatements.size() == 1
 					|| !ASTNodes.fallsThrough(ifStatement.getThenStatement())) {
-				throw new AbortSearchException();
+				throw AbortSearchException.INSTANCE;
 			}
 
 			List<Statement> elseStmts= new ArrayList<>(actualStatements);
@@ -466,7 +466,7 @@ public final class ControlWorkflowMatcher implements ControlWorkflowMatcherCompl
 			return node;
 		}
 
-		throw new AbortSearchException();
+		throw AbortSearchException.INSTANCE;
 	}
 
 	private ControlWorkflowNode buildActualNodes(final Expression condition) {
@@ -51,6 +51,6 @@ public class InterruptibleVisitor extends ASTVisitor {
 	 * @return nothing
 	 */
 	public boolean interruptVisit() {
-		throw new AbortSearchException();
+		throw AbortSearchException.INSTANCE;
 	}
 }
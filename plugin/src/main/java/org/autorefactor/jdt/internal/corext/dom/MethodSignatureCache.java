@@ -0,0 +1,135 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers whether a method matches an expected signature, so the type
+ * hierarchy of the method is only walked once per run for each signature
+ * tested by the cleanup rules.
+ * <p>
+ * Only the methods declared in binary types are remembered: their hierarchy
+ * cannot be changed by editing the sources. The results are remembered per Java
+ * project, because two projects may use different versions of the same library,
+ * with the same binding keys.
+ */
+final class MethodSignatureCache {
+	/** Beyond this size, the cache is emptied rather than keeping growing. */
+	private static final int MAX_SIZE= 100_000;
+
+	private static final Map<Key, Boolean> MATCHES= new ConcurrentHashMap<>();
+
+	private static final class Key {
+		private final String projectName;
+		private final String methodKey;
+		private final String typeQualifiedName;
+		private final String[] parameterTypesQualifiedNames;
+		private final int hashCode;
+
+		private Key(final String projectName, final String methodKey, final String typeQualifiedName,
+				final String[] parameterTypesQualifiedNames) {
+			this.projectName= projectName;
+			this.methodKey= methodKey;
+			this.typeQualifiedName= typeQualifiedName;
+			this.parameterTypesQualifiedNames= parameterTypesQualifiedNames;
+			this.hashCode= ((projectName.hashCode() * 31 + methodKey.hashCode()) * 31 + typeQualifiedName.hashCode()) * 31
+					+ Arrays.hashCode(parameterTypesQualifiedNames);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+
+			Key other= (Key) obj;
+			return hashCode == other.hashCode && methodKey.equals(other.methodKey) && projectName.equals(other.projectName)
+					&& typeQualifiedName.equals(other.typeQualifiedName)
+					&& Arrays.equals(parameterTypesQualifiedNames, other.parameterTypesQualifiedNames);
+		}
+	}
+
+	private MethodSignatureCache() {
+	}
+
+	/**
+	 * Returns whether the method has already been matched against the expected
+	 * signature. The method name is part of the method key.
+	 *
+	 * @param projectName                  the name of the Java project the method
+	 *                                     is seen from
+	 * @param methodKey                    the key of the method binding
+	 * @param typeQualifiedName            the expected qualified name of the type
+	 *                                     declaring the method
+	 * @param parameterTypesQualifiedNames the expected qualified names of the
+	 *                                     parameter types
+	 * @return the previous result, or null if it is unknown
+	 */
+	static Boolean get(final String projectName, final String methodKey, final String typeQualifiedName,
+			final String[] parameterTypesQualifiedNames) {
+		return MATCHES.get(new Key(projectName, methodKey, typeQualifiedName, parameterTypesQualifiedNames));
+	}
+
+	/**
+	 * Remembers whether the method matches the expected signature.
+	 *
+	 * @param projectName                  the name of the Java project the method
+	 *                                     is seen from
+	 * @param methodKey                    the key of the method binding
+	 * @param typeQualifiedName            the expected qualified name of the type
+	 *                                     declaring the method
+	 * @param parameterTypesQualifiedNames the expected qualified names of the
+	 *                                     parameter types
+	 * @param matches                      whether the method matches
+	 */
+	static void put(final String projectName, final String methodKey, final String typeQualifiedName,
+			final String[] parameterTypesQualifiedNames, final boolean matches) {
+		if (MATCHES.size() >= MAX_SIZE) {
+			MATCHES.clear();
+		}
+
+		MATCHES.put(new Key(projectName, methodKey, typeQualifiedName, parameterTypesQualifiedNames), matches);
+	}
+
+	/**
+	 * Forgets all the results, typically at the start of a run, in case the
+	 * classpath has changed.
+	 */
+	static void clear() {
+		MATCHES.clear();
+	}
+}
@@ -27,15 +27,18 @@ package org.autorefactor.jdt.internal.corext.dom;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.PriorityBlockingQueue;
 
 import org.autorefactor.environment.Environment;
+import org.autorefactor.jdt.internal.corext.refactoring.structure.MethodReferenceIndex;
+import org.autorefactor.preferences.Preferences;
 import org.autorefactor.util.NotImplementedException;
 import org.autorefactor.util.UnhandledException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -61,6 +64,8 @@ public class PrepareApplyRefactoringsJob extends Job {
 	private final List<RefactoringRule> refactoringRulesToApply;
 	private final Map<IJavaElement, JavaProjectOptions> javaProjects= new HashMap<>();
 	private final Environment environment;
+	private CleanIndex cleanIndex;
+	private volatile int nbRefactoringUnits;
 
 	/**
 	 * Builds an instance of this class.
@@ -99,12 +104,22 @@ public class PrepareApplyRefactoringsJob extends Job {
 
 	private IStatus run0(final IProgressMonitor monitor) throws Exception {
 		if (!javaElements.isEmpty()) {
+			MethodSignatureCache.clear();
+			TypeNameCache.clear();
+			MethodReferenceIndex.getInstance().clear();
+			if (environment.getPreferences() != null && environment.getPreferences().cleanIndexOn()) {
+				cleanIndex= new CleanIndex(refactoringRulesToApply, environment.getLogger());
+			}
 			Queue<RefactoringUnit> toRefactor= collectRefactoringUnits(javaElements, monitor);
-			int nbCores= Runtime.getRuntime().availableProcessors();
-			int nbWorkers= computeNbWorkers(toRefactor.size(), nbCores);
+			nbRefactoringUnits= toRefactor.size();
+			int nbWorkers= computeNbWorkers(toRefactor.size(), getMaxParallelWorkers());
+			Profiler profiler= environment.getPreferences() != null && environment.getPreferences().profilingOn()
+					? new Profiler(nbWorkers)
+					: null;
 			JobGroup jobGroup= new JobGroup("Job name", nbWorkers, nbWorkers); //$NON-NLS-1$
 			for (int i= 0; i < nbWorkers; i++) {
-				Job job= new ApplyRefactoringsJob(toRefactor, clone(refactoringRulesToApply), environment);
+				Job job= new ApplyRefactoringsJob(toRefactor, clone(refactoringRulesToApply), environment, cleanIndex,
+						profiler, nbWorkers);
 				job.setJobGroup(jobGroup);
 				job.setUser(true);
 				job.schedule();
@@ -114,6 +129,16 @@ public class PrepareApplyRefactoringsJob extends Job {
 		return Status.OK_STATUS;
 	}
 
+	/**
+	 * Returns the number of compilation units handed to the workers.
+	 *
+	 * @return the number of compilation units handed to the workers, 0 until this
+	 *         job has run
+	 */
+	public int getNbRefactoringUnits() {
+		return nbRefactoringUnits;
+	}
+
 	/**
 	 * Clones all the cleanups to apply. In fairness, this method is only useful
 	 * for stateful cleanups.
@@ -128,23 +153,33 @@ public class PrepareApplyRefactoringsJob extends Job {
 		return res;
 	}
 
-	private int computeNbWorkers(final int nbWorkItems, final int nbCores) {
-		int nbPartitions= nbWorkItems / 10;
-		if (nbPartitions >= nbCores) {
-			return nbCores;
-		}
-		if (nbPartitions > 0) {
-			return nbPartitions;
+	private int getMaxParallelWorkers() {
+		Preferences preferences= environment.getPreferences();
+		int maxParallelWorkers= preferences != null ? preferences.maxParallelWorkers() : 0;
+		if (maxParallelWorkers > 0) {
+			return maxParallelWorkers;
 		}
 
-		return 1;
+		return Runtime.getRuntime().availableProcessors();
+	}
+
+	private int computeNbWorkers(final int nbWorkItems, final int nbCores) {
+		return Math.max(1, Math.min(nbCores, nbWorkItems));
 	}
 
+	/**
+	 * Collects the units to refactor in a queue shared by all the workers. The
+	 * most expensive units come first, so a big file is not left alone at the end
+	 * of the run while the other workers are idle.
+	 */
 	private Queue<RefactoringUnit> collectRefactoringUnits(final List<IJavaElement> javaElements, final IProgressMonitor monitor) {
 		try {
-			Set<RefactoringUnit> results= new ConcurrentSkipListSet<>();
+			Set<RefactoringUnit> results= new LinkedHashSet<>();
 			addAll(results, javaElements, monitor);
-			return new ConcurrentLinkedQueue<>(results);
+			Queue<RefactoringUnit> queue= new PriorityBlockingQueue<>(Math.max(1, results.size()),
+					Comparator.<RefactoringUnit>comparingLong(RefactoringUnit::getEstimatedCost).reversed());
+			queue.addAll(results);
+			return queue;
 		} catch (Exception e) {
 			throw new UnhandledException(null, e);
 		}
@@ -186,8 +221,8 @@ public class PrepareApplyRefactoringsJob extends Job {
 		if (!cu.isConsistent()) {
 			cu.makeConsistent(null);
 		}
-		if (!cu.isReadOnly()) {
-			results.add(new RefactoringUnit(cu, options));
+		if (!cu.isReadOnly() && (cleanIndex == null || !cleanIndex.isClean(cu, options))) {
+			results.add(new RefactoringUnit(cu, options, RefactoringCosts.estimate(cu)));
 		}
 	}
 
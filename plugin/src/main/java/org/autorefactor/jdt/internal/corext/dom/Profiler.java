@@ -0,0 +1,300 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.autorefactor.environment.Logger;
+import org.eclipse.core.runtime.Platform;
+
+/**
+ * Collects the time spent by each cleanup rule and by each phase of the
+ * processing of each compilation unit during a run, when the profiling mode is
+ * on.
+ * <p>
+ * The workers count the time of the rules in their own
+ * {@link org.autorefactor.jdt.internal.ui.fix.AggregateASTVisitor} and only
+ * merge them here once per compilation unit. The last worker to finish exports
+ * the measures as CSV and JSON files into the state location of the plugin and
+ * logs a summary.
+ */
+public final class Profiler {
+	private static final int NB_RULES_IN_SUMMARY= 10;
+
+	/** Measures of a cleanup rule, summed over all the compilation units. */
+	private static final class RuleProfile {
+		private long visitNanos;
+		private long nbVisits;
+		private long nbRefactorings;
+	}
+
+	/** Measures of the processing of a compilation unit, in nanoseconds. */
+	private static final class FileProfile {
+		private final String path;
+		private final int nbIterations;
+		private final long parseNanos;
+		private final long visitNanos;
+		private final long rewriteNanos;
+		private final long saveNanos;
+
+		private FileProfile(final String path, final int nbIterations, final long parseNanos, final long visitNanos,
+				final long rewriteNanos, final long saveNanos) {
+			this.path= path;
+			this.nbIterations= nbIterations;
+			this.parseNanos= parseNanos;
+			this.visitNanos= visitNanos;
+			this.rewriteNanos= rewriteNanos;
+			this.saveNanos= saveNanos;
+		}
+	}
+
+	private final Map<String, RuleProfile> ruleProfiles= new TreeMap<>();
+	private final List<FileProfile> fileProfiles= new ArrayList<>();
+	private final AtomicInteger nbRunningWorkers;
+	private final long startTime= System.nanoTime();
+
+	/**
+	 * Builds an instance of this class.
+	 *
+	 * @param nbWorkers the number of workers sharing this profiler
+	 */
+	Profiler(final int nbWorkers) {
+		this.nbRunningWorkers= new AtomicInteger(nbWorkers);
+	}
+
+	/**
+	 * Adds the measures of a cleanup rule for a compilation unit.
+	 *
+	 * @param ruleName       the name of the cleanup rule
+	 * @param visitNanos     the time spent in the visit methods of the rule, in
+	 *                       nanoseconds
+	 * @param nbVisits       the number of calls to the visit methods of the rule
+	 * @param nbRefactorings the number of refactorings contributed by the rule
+	 */
+	public synchronized void recordRule(final String ruleName, final long visitNanos, final long nbVisits,
+			final long nbRefactorings) {
+		RuleProfile ruleProfile= ruleProfiles.get(ruleName);
+		if (ruleProfile == null) {
+			ruleProfile= new RuleProfile();
+			ruleProfiles.put(ruleName, ruleProfile);
+		}
+		ruleProfile.visitNanos+= visitNanos;
+		ruleProfile.nbVisits+= nbVisits;
+		ruleProfile.nbRefactorings+= nbRefactorings;
+	}
+
+	/**
+	 * Adds the measures of the processing of a compilation unit.
+	 *
+	 * @param path         the path of the compilation unit
+	 * @param nbIterations the number of passes needed to reach the fixpoint
+	 * @param parseNanos   the time spent parsing, in nanoseconds
+	 * @param visitNanos   the time spent visiting, in nanoseconds
+	 * @param rewriteNanos the time spent applying the edits to the document, in
+	 *                     nanoseconds
+	 * @param saveNanos    the time spent saving, in nanoseconds
+	 */
+	synchronized void recordFile(final String path, final int nbIterations, final long parseNanos,
+			final long visitNanos, final long rewriteNanos, final long saveNanos) {
+		fileProfiles.add(new FileProfile(path, nbIterations, parseNanos, visitNanos, rewriteNanos, saveNanos));
+	}
+
+	/**
+	 * Signals that a worker has finished. The last one exports the measures and
+	 * logs a summary.
+	 *
+	 * @param logger the logger
+	 */
+	void workerDone(final Logger logger) {
+		if (nbRunningWorkers.decrementAndGet() == 0) {
+			report(logger);
+		}
+	}
+
+	private synchronized void report(final Logger logger) {
+		try {
+			Path stateLocation= Platform.getStateLocation(Platform.getBundle(PluginConstant.PLUGIN_ID)).toFile()
+					.toPath();
+			String baseName= "autorefactor-profile-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()); //$NON-NLS-1$ //$NON-NLS-2$
+			Path rulesCsv= stateLocation.resolve(baseName + "-rules.csv"); //$NON-NLS-1$
+			Path filesCsv= stateLocation.resolve(baseName + "-files.csv"); //$NON-NLS-1$
+			Path json= stateLocation.resolve(baseName + ".json"); //$NON-NLS-1$
+			write(rulesCsv, toRulesCsv());
+			write(filesCsv, toFilesCsv());
+			write(json, toJson());
+			logger.info(getSummary() + "Profile written to " + json + ", " + rulesCsv + " and " + filesCsv); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		} catch (IOException | IllegalStateException e) {
+			logger.error("Cannot write the profile of the run", e); //$NON-NLS-1$
+		}
+	}
+
+	private static void write(final Path file, final String content) throws IOException {
+		try (BufferedWriter writer= Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			writer.write(content);
+		}
+	}
+
+	/**
+	 * Returns the measures of the cleanup rules as CSV.
+	 *
+	 * @return the measures of the cleanup rules as CSV
+	 */
+	synchronized String toRulesCsv() {
+		StringBuilder sb= new StringBuilder("rule,visitMillis,visits,refactorings\n"); //$NON-NLS-1$
+		for (Map.Entry<String, RuleProfile> entry : ruleProfiles.entrySet()) {
+			RuleProfile ruleProfile= entry.getValue();
+			sb.append(entry.getKey()).append(',').append(toMillis(ruleProfile.visitNanos)).append(',')
+					.append(ruleProfile.nbVisits).append(',').append(ruleProfile.nbRefactorings).append('\n');
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns the measures of the compilation units as CSV.
+	 *
+	 * @return the measures of the compilation units as CSV
+	 */
+	synchronized String toFilesCsv() {
+		StringBuilder sb= new StringBuilder("file,iterations,parseMillis,visitMillis,rewriteMillis,saveMillis\n"); //$NON-NLS-1$
+		for (FileProfile fileProfile : fileProfiles) {
+			sb.append('"').append(fileProfile.path.replace("\"", "\"\"")).append('"').append(',') //$NON-NLS-1$ //$NON-NLS-2$
+					.append(fileProfile.nbIterations).append(',').append(toMillis(fileProfile.parseNanos)).append(',')
+					.append(toMillis(fileProfile.visitNanos)).append(',').append(toMillis(fileProfile.rewriteNanos))
+					.append(',').append(toMillis(fileProfile.saveNanos)).append('\n');
+		}
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns all the measures as JSON.
+	 *
+	 * @return all the measures as JSON
+	 */
+	synchronized String toJson() {
+		StringBuilder sb= new StringBuilder("{\n  \"totalMillis\": "); //$NON-NLS-1$
+		sb.append(toMillis(System.nanoTime() - startTime)).append(",\n  \"rules\": ["); //$NON-NLS-1$
+		boolean isFirst= true;
+		for (Map.Entry<String, RuleProfile> entry : ruleProfiles.entrySet()) {
+			RuleProfile ruleProfile= entry.getValue();
+			sb.append(isFirst ? "\n" : ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append("    {\"rule\": "); //$NON-NLS-1$
+			appendJsonString(sb, entry.getKey());
+			sb.append(", \"visitMillis\": ").append(toMillis(ruleProfile.visitNanos)); //$NON-NLS-1$
+			sb.append(", \"visits\": ").append(ruleProfile.nbVisits); //$NON-NLS-1$
+			sb.append(", \"refactorings\": ").append(ruleProfile.nbRefactorings).append('}'); //$NON-NLS-1$
+			isFirst= false;
+		}
+		sb.append("\n  ],\n  \"files\": ["); //$NON-NLS-1$
+		isFirst= true;
+		for (FileProfile fileProfile : fileProfiles) {
+			sb.append(isFirst ? "\n" : ",\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			sb.append("    {\"file\": "); //$NON-NLS-1$
+			appendJsonString(sb, fileProfile.path);
+			sb.append(", \"iterations\": ").append(fileProfile.nbIterations); //$NON-NLS-1$
+			sb.append(", \"parseMillis\": ").append(toMillis(fileProfile.parseNanos)); //$NON-NLS-1$
+			sb.append(", \"visitMillis\": ").append(toMillis(fileProfile.visitNanos)); //$NON-NLS-1$
+			sb.append(", \"rewriteMillis\": ").append(toMillis(fileProfile.rewriteNanos)); //$NON-NLS-1$
+			sb.append(", \"saveMillis\": ").append(toMillis(fileProfile.saveNanos)).append('}'); //$NON-NLS-1$
+			isFirst= false;
+		}
+		sb.append("\n  ]\n}\n"); //$NON-NLS-1$
+		return sb.toString();
+	}
+
+	private static void appendJsonString(final StringBuilder sb, final String value) {
+		sb.append('"');
+		for (int i= 0; i < value.length(); i++) {
+			char c= value.charAt(i);
+			if (c == '"' || c == '\\') {
+				sb.append('\\').append(c);
+			} else if (c < ' ') {
+				sb.append(String.format("\\u%04x", (int) c)); //$NON-NLS-1$
+			} else {
+				sb.append(c);
+			}
+		}
+		sb.append('"');
+	}
+
+	/**
+	 * Returns a summary of the run with the most expensive cleanup rules.
+	 *
+	 * @return a summary of the run
+	 */
+	synchronized String getSummary() {
+		long parseNanos= 0;
+		long visitNanos= 0;
+		long rewriteNanos= 0;
+		long saveNanos= 0;
+		long nbIterations= 0;
+		for (FileProfile fileProfile : fileProfiles) {
+			parseNanos+= fileProfile.parseNanos;
+			visitNanos+= fileProfile.visitNanos;
+			rewriteNanos+= fileProfile.rewriteNanos;
+			saveNanos+= fileProfile.saveNanos;
+			nbIterations+= fileProfile.nbIterations;
+		}
+
+		StringBuilder sb= new StringBuilder("AutoRefactor profile: "); //$NON-NLS-1$
+		sb.append(fileProfiles.size()).append(" files in ").append(toMillis(System.nanoTime() - startTime)) //$NON-NLS-1$
+				.append(" ms, ").append(nbIterations).append(" passes\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		sb.append("  parse ").append(toMillis(parseNanos)).append(" ms, visit ").append(toMillis(visitNanos)) //$NON-NLS-1$ //$NON-NLS-2$
+				.append(" ms, rewrite ").append(toMillis(rewriteNanos)).append(" ms, save ") //$NON-NLS-1$ //$NON-NLS-2$
+				.append(toMillis(saveNanos)).append(" ms\n"); //$NON-NLS-1$
+
+		List<Map.Entry<String, RuleProfile>> entries= new ArrayList<>(ruleProfiles.entrySet());
+		Collections.sort(entries, Comparator.comparingLong(
+				(final Map.Entry<String, RuleProfile> entry) -> entry.getValue().visitNanos).reversed());
+		for (int i= 0; i < entries.size() && i < NB_RULES_IN_SUMMARY; i++) {
+			RuleProfile ruleProfile= entries.get(i).getValue();
+			sb.append("  ").append(entries.get(i).getKey()).append(": ").append(toMillis(ruleProfile.visitNanos)) //$NON-NLS-1$ //$NON-NLS-2$
+					.append(" ms, ").append(ruleProfile.nbVisits).append(" visits, ") //$NON-NLS-1$ //$NON-NLS-2$
+					.append(ruleProfile.nbRefactorings).append(" refactorings\n"); //$NON-NLS-1$
+		}
+
+		return sb.toString();
+	}
+
+	private static long toMillis(final long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.ICompilationUnit;
+
+/**
+ * Estimates the time needed to refactor a compilation unit, so the most
+ * expensive compilation units can be started first. The time of the previous
+ * run is used when it is known, else the time is extrapolated from the file
+ * size.
+ */
+final class RefactoringCosts {
+	/** Beyond this size, the previous run times are forgotten rather than keeping growing. */
+	private static final int MAX_SIZE= 100_000;
+
+	/** The time spent on each compilation unit the last time it was refactored, in nanoseconds. */
+	private static final Map<IPath, Long> PREVIOUS_RUN_NANOS= new ConcurrentHashMap<>();
+	private static final AtomicLong MEASURED_NANOS= new AtomicLong();
+	private static final AtomicLong MEASURED_LENGTH= new AtomicLong();
+
+	private RefactoringCosts() {
+	}
+
+	/**
+	 * Returns the estimated time needed to refactor the provided compilation unit.
+	 *
+	 * @param compilationUnit the compilation unit
+	 * @return the estimated time, in nanoseconds
+	 */
+	static long estimate(final ICompilationUnit compilationUnit) {
+		Long previousRunNanos= PREVIOUS_RUN_NANOS.get(compilationUnit.getPath());
+		if (previousRunNanos != null) {
+			return previousRunNanos;
+		}
+
+		long measuredLength= MEASURED_LENGTH.get();
+		long nanosPerByte= measuredLength > 0 ? Math.max(1, MEASURED_NANOS.get() / measuredLength) : 1;
+		return getLength(compilationUnit) * nanosPerByte;
+	}
+
+	/**
+	 * Records the time spent to refactor the provided compilation unit.
+	 *
+	 * @param compilationUnit the compilation unit
+	 * @param nanos           the time spent, in nanoseconds
+	 */
+	static void record(final ICompilationUnit compilationUnit, final long nanos) {
+		if (PREVIOUS_RUN_NANOS.size() >= MAX_SIZE) {
+			PREVIOUS_RUN_NANOS.clear();
+		}
+
+		PREVIOUS_RUN_NANOS.put(compilationUnit.getPath(), nanos);
+		MEASURED_NANOS.addAndGet(nanos);
+		MEASURED_LENGTH.addAndGet(getLength(compilationUnit));
+	}
+
+	private static long getLength(final ICompilationUnit compilationUnit) {
+		IResource resource= compilationUnit.getResource();
+		IPath location= resource != null ? resource.getLocation() : null;
+		return location != null ? location.toFile().length() : 0;
+	}
+}
@@ -33,6 +33,7 @@ import org.eclipse.jdt.core.ICompilationUnit;
 public class RefactoringUnit implements Comparable<Object> {
 	private final ICompilationUnit compilationUnit;
 	private final JavaProjectOptions options;
+	private final long estimatedCost;
 
 	/**
 	 * CleanupUnit.
@@ -41,8 +42,22 @@ public class RefactoringUnit implements Comparable<Object> {
 	 * @param options         options
 	 */
 	public RefactoringUnit(final ICompilationUnit compilationUnit, final JavaProjectOptions options) {
+		this(compilationUnit, options, 0);
+	}
+
+	/**
+	 * CleanupUnit.
+	 *
+	 * @param compilationUnit compilationUnit
+	 * @param options         options
+	 * @param estimatedCost   the estimated time needed to refactor the compilation
+	 *                        unit, in nanoseconds
+	 */
+	public RefactoringUnit(final ICompilationUnit compilationUnit, final JavaProjectOptions options,
+			final long estimatedCost) {
 		this.compilationUnit= compilationUnit;
 		this.options= options;
+		this.estimatedCost= estimatedCost;
 	}
 
 	ICompilationUnit getCompilationUnit() {
@@ -53,6 +68,10 @@ public class RefactoringUnit implements Comparable<Object> {
 		return options;
 	}
 
+	long getEstimatedCost() {
+		return estimatedCost;
+	}
+
 	@Override
 	public String toString() {
 		return getCompilationUnit().toString();
@@ -81,7 +100,8 @@ public class RefactoringUnit implements Comparable<Object> {
 			return -1;
 		}
 
-		return compilationUnit.getElementName().compareTo(other.compilationUnit.getElementName());
+		// Compare the full paths: two files with the same name may live in different packages
+		return compilationUnit.getPath().toString().compareTo(other.compilationUnit.getPath().toString());
 	}
 
 	@Override
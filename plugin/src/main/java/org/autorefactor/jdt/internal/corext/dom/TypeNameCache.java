@@ -0,0 +1,156 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+
+/**
+ * Remembers the qualified names of the erasures of the types and of their
+ * supertypes, indexed by binding key. {@link ITypeBinding#getQualifiedName()}
+ * builds a new string on each call, whereas the binding key is computed once
+ * per binding and always denotes the same type name.
+ * <p>
+ * The names are interned, so comparing them to the type name constants of the
+ * rules succeeds on the identity check.
+ * <p>
+ * The hierarchies are remembered per Java project: two projects may use
+ * different versions of the same library, with the same binding keys.
+ */
+final class TypeNameCache {
+	/** Beyond this size, a cache is emptied rather than keeping growing. */
+	private static final int MAX_SIZE= 100_000;
+
+	private static final Map<String, String> QUALIFIED_NAMES= new ConcurrentHashMap<>();
+	/**
+	 * Only for binary types: the hierarchy of a source type may be edited. Indexed
+	 * by project name, then by binding key.
+	 */
+	private static final Map<String, Map<String, Set<String>>> SUPERTYPE_NAMES= new ConcurrentHashMap<>();
+
+	private TypeNameCache() {
+	}
+
+	/**
+	 * Returns the qualified name of the provided erasure.
+	 *
+	 * @param erasure the erasure of a type
+	 * @return the interned qualified name of the erasure
+	 */
+	static String getQualifiedName(final ITypeBinding erasure) {
+		String key= erasure.getKey();
+		if (key == null) {
+			return erasure.getQualifiedName();
+		}
+
+		String qualifiedName= QUALIFIED_NAMES.get(key);
+		if (qualifiedName == null) {
+			qualifiedName= erasure.getQualifiedName().intern();
+			if (QUALIFIED_NAMES.size() >= MAX_SIZE) {
+				QUALIFIED_NAMES.clear();
+			}
+			QUALIFIED_NAMES.put(key, qualifiedName);
+		}
+
+		return qualifiedName;
+	}
+
+	/**
+	 * Returns the qualified names of the erasures of the provided binary type and
+	 * of all its supertypes.
+	 *
+	 * @param projectName the name of the Java project the type is seen from, see
+	 *                    {@link #getProjectName(ITypeBinding)}
+	 * @param erasure     the erasure of a type which does not come from the
+	 *                    sources
+	 * @return the interned qualified names of the erasures of the provided type and
+	 *         of all its supertypes
+	 */
+	static Set<String> getSupertypeNames(final String projectName, final ITypeBinding erasure) {
+		Map<String, Set<String>> projectSupertypeNames= SUPERTYPE_NAMES.get(projectName);
+		if (projectSupertypeNames == null) {
+			projectSupertypeNames= new ConcurrentHashMap<>();
+			Map<String, Set<String>> existing= SUPERTYPE_NAMES.putIfAbsent(projectName, projectSupertypeNames);
+			if (existing != null) {
+				projectSupertypeNames= existing;
+			}
+		}
+
+		String key= erasure.getKey();
+		Set<String> supertypeNames= projectSupertypeNames.get(key);
+		if (supertypeNames == null) {
+			supertypeNames= new HashSet<>();
+			collectSupertypeNames(erasure, supertypeNames);
+			if (projectSupertypeNames.size() >= MAX_SIZE) {
+				projectSupertypeNames.clear();
+			}
+			projectSupertypeNames.put(key, supertypeNames);
+		}
+
+		return supertypeNames;
+	}
+
+	/**
+	 * Returns the name of the Java project the provided binary type is seen from.
+	 *
+	 * @param binaryType a type which does not come from the sources
+	 * @return the name of the Java project, or null if it is unknown
+	 */
+	static String getProjectName(final ITypeBinding binaryType) {
+		IJavaElement javaElement= binaryType.getJavaElement();
+		IJavaProject javaProject= javaElement != null ? javaElement.getJavaProject() : null;
+		return javaProject != null ? javaProject.getElementName() : null;
+	}
+
+	private static void collectSupertypeNames(final ITypeBinding typeBinding, final Set<String> supertypeNames) {
+		if (!supertypeNames.add(getQualifiedName(typeBinding.getErasure()))) {
+			return;
+		}
+
+		ITypeBinding superclass= typeBinding.getSuperclass();
+		if (superclass != null) {
+			collectSupertypeNames(superclass, supertypeNames);
+		}
+
+		for (ITypeBinding itfBinding : typeBinding.getInterfaces()) {
+			collectSupertypeNames(itfBinding, supertypeNames);
+		}
+	}
+
+	/**
+	 * Forgets the hierarchies, typically at the start of a run, in case the
+	 * classpath has changed.
+	 */
+	static void clear() {
+		SUPERTYPE_NAMES.clear();
+	}
+}
@@ -30,14 +30,10 @@ import java.util.List;
 
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.Block;
-import org.eclipse.jdt.core.dom.ChildPropertyDescriptor;
 import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.SimpleName;
-import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.VariableDeclaration;
-import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
 
 /** Visitor collecting all definitions and uses of a local variable. */
 public final class VarDefinitionsUsesVisitor extends ASTVisitor {
@@ -102,26 +98,11 @@ public final class VarDefinitionsUsesVisitor extends ASTVisitor {
 	@Override
 	public boolean visit(final SimpleName node) {
 		if (ASTNodes.isSameLocalVariable(variableBinding, node)) {
-			switch (node.getParent().getNodeType()) {
-			case ASTNode.ASSIGNMENT:
-				addWriteOrRead(node, Assignment.LEFT_HAND_SIDE_PROPERTY);
-				if (node.getLocationInParent() == Assignment.LEFT_HAND_SIDE_PROPERTY
-						&& !ASTNodes.hasOperator((Assignment) node.getParent(), Assignment.Operator.ASSIGN)) {
-					reads.add(node);
-				}
-				break;
-
-			case ASTNode.VARIABLE_DECLARATION_FRAGMENT:
-				addWriteOrRead(node, VariableDeclarationFragment.NAME_PROPERTY);
-				break;
-
-			case ASTNode.SINGLE_VARIABLE_DECLARATION:
-				addWriteOrRead(node, SingleVariableDeclaration.NAME_PROPERTY);
-				break;
-
-			default:
+			if (VariableOccurrences.isWrite(node)) {
+				writes.add(node);
+			}
+			if (VariableOccurrences.isRead(node)) {
 				reads.add(node);
-				break;
 			}
 		}
 
@@ -133,14 +114,6 @@ public final class VarDefinitionsUsesVisitor extends ASTVisitor {
 		return scopeNode == node || includeInnerScopes;
 	}
 
-	private void addWriteOrRead(final SimpleName node, final ChildPropertyDescriptor definitionPropertyDescriptor) {
-		if (node.getLocationInParent() == definitionPropertyDescriptor) {
-			writes.add(node);
-		} else {
-			reads.add(node);
-		}
-	}
-
 	/**
 	 * Returns all the definitions (declarations and assignments) found.
 	 *
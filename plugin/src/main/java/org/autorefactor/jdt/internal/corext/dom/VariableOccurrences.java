@@ -0,0 +1,194 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.dom;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Assignment;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
+
+/**
+ * Occurrences of all the variables of a subtree, split into reads and writes.
+ * The subtree is visited once, then each query only looks at the occurrences
+ * of the requested variable.
+ */
+public final class VariableOccurrences {
+	private static final class Occurrences {
+		private final List<SimpleName> all= new ArrayList<>();
+		private final List<SimpleName> reads= new ArrayList<>();
+		private final List<SimpleName> writes= new ArrayList<>();
+	}
+
+	private final Map<IBinding, Occurrences> occurrencesByVariable= new HashMap<>();
+
+	/**
+	 * Builds an instance of this class.
+	 *
+	 * @param root the subtree where to look for the variables
+	 */
+	public VariableOccurrences(final ASTNode root) {
+		root.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(final SimpleName node) {
+				IBinding binding= node.resolveBinding();
+
+				if (binding instanceof IVariableBinding) {
+					IVariableBinding variableDeclaration= ((IVariableBinding) binding).getVariableDeclaration();
+					Occurrences occurrences= occurrencesByVariable.get(variableDeclaration);
+
+					if (occurrences == null) {
+						occurrences= new Occurrences();
+						occurrencesByVariable.put(variableDeclaration, occurrences);
+					}
+
+					occurrences.all.add(node);
+
+					if (isWrite(node)) {
+						occurrences.writes.add(node);
+					}
+					if (isRead(node)) {
+						occurrences.reads.add(node);
+					}
+				}
+
+				return true;
+			}
+		});
+	}
+
+	/**
+	 * Returns all the occurrences of the variable, in source order, declarations
+	 * included.
+	 *
+	 * @param variable the variable
+	 * @return all the occurrences of the variable
+	 */
+	public List<SimpleName> getOccurrences(final IVariableBinding variable) {
+		Occurrences occurrences= get(variable);
+		return occurrences != null ? Collections.unmodifiableList(occurrences.all) : Collections.emptyList();
+	}
+
+	/**
+	 * Returns the occurrences reading the variable, in source order.
+	 *
+	 * @param variable the variable
+	 * @return the occurrences reading the variable
+	 */
+	public List<SimpleName> getReads(final IVariableBinding variable) {
+		Occurrences occurrences= get(variable);
+		return occurrences != null ? Collections.unmodifiableList(occurrences.reads) : Collections.emptyList();
+	}
+
+	/**
+	 * Returns the occurrences writing the variable, in source order, declarations
+	 * included.
+	 *
+	 * @param variable the variable
+	 * @return the occurrences writing the variable
+	 */
+	public List<SimpleName> getWrites(final IVariableBinding variable) {
+		Occurrences occurrences= get(variable);
+		return occurrences != null ? Collections.unmodifiableList(occurrences.writes) : Collections.emptyList();
+	}
+
+	/**
+	 * Returns the occurrences reading the variable inside the provided node.
+	 *
+	 * @param variable the variable
+	 * @param scope    the node where to look for reads, inside the subtree of this
+	 *                 index
+	 * @return the occurrences reading the variable inside the provided node
+	 */
+	public List<SimpleName> getReads(final IVariableBinding variable, final ASTNode scope) {
+		return filter(getReads(variable), scope);
+	}
+
+	/**
+	 * Returns the occurrences writing the variable inside the provided node.
+	 *
+	 * @param variable the variable
+	 * @param scope    the node where to look for writes, inside the subtree of
+	 *                 this index
+	 * @return the occurrences writing the variable inside the provided node
+	 */
+	public List<SimpleName> getWrites(final IVariableBinding variable, final ASTNode scope) {
+		return filter(getWrites(variable), scope);
+	}
+
+	private Occurrences get(final IVariableBinding variable) {
+		return variable != null ? occurrencesByVariable.get(variable.getVariableDeclaration()) : null;
+	}
+
+	private static List<SimpleName> filter(final List<SimpleName> names, final ASTNode scope) {
+		int scopeStart= scope.getStartPosition();
+		int scopeEnd= scopeStart + scope.getLength();
+		List<SimpleName> result= new ArrayList<>();
+
+		for (SimpleName name : names) {
+			if (scopeStart <= name.getStartPosition() && name.getStartPosition() + name.getLength() <= scopeEnd) {
+				result.add(name);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns whether the name is the target of an assignment or the name of a
+	 * declaration.
+	 *
+	 * @param name the variable name
+	 * @return true if the name is the target of an assignment or the name of a
+	 *         declaration, false otherwise
+	 */
+	public static boolean isWrite(final SimpleName name) {
+		return name.getLocationInParent() == Assignment.LEFT_HAND_SIDE_PROPERTY
+				|| name.getLocationInParent() == VariableDeclarationFragment.NAME_PROPERTY
+				|| name.getLocationInParent() == SingleVariableDeclaration.NAME_PROPERTY;
+	}
+
+	/**
+	 * Returns whether the value of the variable is read. The target of a compound
+	 * assignment like <code>i += 1</code> is both read and written.
+	 *
+	 * @param name the variable name
+	 * @return true if the value of the variable is read, false otherwise
+	 */
+	public static boolean isRead(final SimpleName name) {
+		return !isWrite(name) || name.getLocationInParent() == Assignment.LEFT_HAND_SIDE_PROPERTY
+				&& !ASTNodes.hasOperator((Assignment) name.getParent(), Assignment.Operator.ASSIGN);
+	}
+}
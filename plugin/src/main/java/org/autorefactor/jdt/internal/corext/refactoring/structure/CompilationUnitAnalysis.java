@@ -0,0 +1,299 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.refactoring.structure;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
+import org.autorefactor.jdt.internal.corext.dom.CommentIndex;
+import org.autorefactor.jdt.internal.corext.dom.InterruptibleVisitor;
+import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
+import org.autorefactor.jdt.internal.corext.dom.VariableOccurrences;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
+import org.eclipse.jdt.core.dom.Comment;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.Initializer;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
+
+/**
+ * Facts about a compilation unit that many cleanup rules need.
+ * <p>
+ * Each fact is computed on first request, then shared by all the cleanup rules
+ * until the AST is parsed again, which creates a new instance of this class.
+ */
+public class CompilationUnitAnalysis {
+	private static final class LombokVisitor extends InterruptibleVisitor {
+		private boolean useLombok;
+
+		@Override
+		public boolean visit(final QualifiedName node) {
+			if (node.getFullyQualifiedName().contains("lombok")) { //$NON-NLS-1$
+				useLombok= true;
+				return interruptVisit();
+			}
+
+			return true;
+		}
+	}
+
+	private final CompilationUnit astRoot;
+	private Boolean useLombok;
+	private Set<String> importedTypes;
+	private Set<String> staticImports;
+	private Set<String> referencedMethodKeys;
+	private CommentIndex commentIndex;
+	private final Map<BodyDeclaration, Set<SimpleName>> localVariableIdentifiers= new HashMap<>();
+	private final Map<ASTNode, VariableOccurrences> variableOccurrences= new HashMap<>();
+
+	/**
+	 * Builds an instance of this class.
+	 *
+	 * @param astRoot the compilation unit, root of the AST
+	 */
+	public CompilationUnitAnalysis(final CompilationUnit astRoot) {
+		this.astRoot= astRoot;
+	}
+
+	/**
+	 * Returns whether the compilation unit refers to Lombok.
+	 *
+	 * @return true if the compilation unit refers to Lombok, false otherwise
+	 */
+	public boolean isUsingLombok() {
+		if (useLombok == null) {
+			LombokVisitor lombokVisitor= new LombokVisitor();
+			lombokVisitor.traverseNodeInterruptibly(astRoot);
+			useLombok= lombokVisitor.useLombok;
+		}
+
+		return useLombok;
+	}
+
+	/**
+	 * Returns the fully qualified names of the types and packages imported with
+	 * non static imports. On demand imports end with <code>.*</code>.
+	 *
+	 * @return the fully qualified names of the imported types and packages
+	 */
+	public Set<String> getImportedTypes() {
+		if (importedTypes == null) {
+			initImports();
+		}
+
+		return importedTypes;
+	}
+
+	/**
+	 * Returns the fully qualified names of the members and types imported with
+	 * static imports. On demand imports end with <code>.*</code>.
+	 *
+	 * @return the fully qualified names of the statically imported members and
+	 *         types
+	 */
+	public Set<String> getStaticImports() {
+		if (staticImports == null) {
+			initImports();
+		}
+
+		return staticImports;
+	}
+
+	private void initImports() {
+		Set<String> types= new HashSet<>();
+		Set<String> statics= new HashSet<>();
+
+		for (ImportDeclaration anImport : (List<ImportDeclaration>) astRoot.imports()) {
+			String name= anImport.getName().getFullyQualifiedName();
+
+			if (anImport.isOnDemand()) {
+				name+= ".*"; //$NON-NLS-1$
+			}
+
+			if (anImport.isStatic()) {
+				statics.add(name);
+			} else {
+				types.add(name);
+			}
+		}
+
+		importedTypes= Collections.unmodifiableSet(types);
+		staticImports= Collections.unmodifiableSet(statics);
+	}
+
+	/**
+	 * Returns the names of the parameters and the local variables declared in the
+	 * provided method or initializer, including the inner scopes.
+	 *
+	 * @param bodyDeclaration the method or initializer
+	 * @return the names of the parameters and the local variables
+	 */
+	public Set<SimpleName> getLocalVariableIdentifiers(final BodyDeclaration bodyDeclaration) {
+		Set<SimpleName> identifiers= localVariableIdentifiers.get(bodyDeclaration);
+
+		if (identifiers == null) {
+			identifiers= new HashSet<>();
+
+			if (bodyDeclaration instanceof MethodDeclaration) {
+				MethodDeclaration method= (MethodDeclaration) bodyDeclaration;
+
+				for (SingleVariableDeclaration parameter : (List<SingleVariableDeclaration>) method.parameters()) {
+					identifiers.add(parameter.getName());
+				}
+
+				identifiers.addAll(ASTNodes.getLocalVariableIdentifiers(method.getBody(), true));
+			} else if (bodyDeclaration instanceof Initializer) {
+				identifiers.addAll(ASTNodes.getLocalVariableIdentifiers(((Initializer) bodyDeclaration).getBody(), true));
+			}
+
+			identifiers= Collections.unmodifiableSet(identifiers);
+			localVariableIdentifiers.put(bodyDeclaration, identifiers);
+		}
+
+		return identifiers;
+	}
+
+	/**
+	 * Returns the occurrences of the variables in the provided subtree, typically
+	 * a type declaration or the block of a method.
+	 *
+	 * @param root the subtree where to look for the variables
+	 * @return the occurrences of the variables in the subtree
+	 */
+	public VariableOccurrences getVariableOccurrences(final ASTNode root) {
+		VariableOccurrences occurrences= variableOccurrences.get(root);
+
+		if (occurrences == null) {
+			occurrences= new VariableOccurrences(root);
+			variableOccurrences.put(root, occurrences);
+		}
+
+		return occurrences;
+	}
+
+	/**
+	 * Returns the reads of a local variable inside the provided node, including
+	 * the inner scopes. All the variables of the enclosing method are indexed on
+	 * the first request, so the following requests do not visit the method again.
+	 *
+	 * @param localVariable the local variable
+	 * @param scope         the node where to look for reads
+	 * @return the reads of the local variable, in source order
+	 * @see VarDefinitionsUsesVisitor#getReads()
+	 */
+	public List<SimpleName> getReads(final IVariableBinding localVariable, final ASTNode scope) {
+		if (!isIndexed(localVariable, scope)) {
+			return new VarDefinitionsUsesVisitor(localVariable, scope, true).getReads();
+		}
+
+		return getVariableOccurrences(getEnclosingBody(scope)).getReads(localVariable, scope);
+	}
+
+	/**
+	 * Returns the definitions of a local variable inside the provided node,
+	 * including the inner scopes. All the variables of the enclosing method are
+	 * indexed on the first request, so the following requests do not visit the
+	 * method again.
+	 *
+	 * @param localVariable the local variable
+	 * @param scope         the node where to look for definitions
+	 * @return the declarations and assignments of the local variable, in source
+	 *         order
+	 * @see VarDefinitionsUsesVisitor#getWrites()
+	 */
+	public List<SimpleName> getWrites(final IVariableBinding localVariable, final ASTNode scope) {
+		if (!isIndexed(localVariable, scope)) {
+			return new VarDefinitionsUsesVisitor(localVariable, scope, true).getWrites();
+		}
+
+		return getVariableOccurrences(getEnclosingBody(scope)).getWrites(localVariable, scope);
+	}
+
+	/**
+	 * Only the local variables of the nodes coming from the parsed source are
+	 * indexed. Nodes created by the cleanups have no source position.
+	 */
+	private boolean isIndexed(final IVariableBinding localVariable, final ASTNode scope) {
+		return ASTNodes.isLocalVariable(localVariable) && scope != null && scope.getRoot() == astRoot
+				&& scope.getStartPosition() >= 0;
+	}
+
+	private ASTNode getEnclosingBody(final ASTNode node) {
+		if (node instanceof BodyDeclaration) {
+			return node;
+		}
+
+		BodyDeclaration bodyDeclaration= ASTNodes.getTypedAncestor(node, BodyDeclaration.class);
+		return bodyDeclaration != null ? bodyDeclaration : astRoot;
+	}
+
+	/**
+	 * Returns the keys of the methods referenced in the compilation unit.
+	 *
+	 * @return the keys of the methods referenced in the compilation unit
+	 * @see MethodReferenceIndex#getReferencedMethodKeys(org.eclipse.jdt.core.dom.ASTNode)
+	 */
+	public Set<String> getReferencedMethodKeys() {
+		if (referencedMethodKeys == null) {
+			referencedMethodKeys= MethodReferenceIndex.getReferencedMethodKeys(astRoot);
+		}
+
+		return referencedMethodKeys;
+	}
+
+	/**
+	 * Returns the comments of the compilation unit, in order of increasing source
+	 * position.
+	 *
+	 * @return the comments of the compilation unit
+	 */
+	public List<Comment> getComments() {
+		return astRoot.getCommentList();
+	}
+
+	/**
+	 * Returns the comments of the compilation unit, indexed by position.
+	 *
+	 * @return the comments of the compilation unit, indexed by position
+	 */
+	public CommentIndex getCommentIndex() {
+		if (commentIndex == null) {
+			commentIndex= new CommentIndex(astRoot.getCommentList());
+		}
+
+		return commentIndex;
+	}
+}
@@ -29,15 +29,14 @@ import org.autorefactor.environment.Environment;
 import org.autorefactor.environment.Logger;
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
+import org.autorefactor.jdt.internal.corext.dom.CommentIndex;
 import org.autorefactor.jdt.internal.corext.dom.JavaProjectOptions;
-import org.autorefactor.jdt.internal.corext.dom.SourceLocation;
 import org.autorefactor.util.UnhandledException;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.Comment;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 
 /** Class holding necessary data for a refactoring. */
@@ -49,6 +48,7 @@ public class CompilationUnitRewrite {
 	private final JavaProjectOptions options;
 	private final SubMonitor monitor;
 	private final Environment environment;
+	private final CompilationUnitAnalysis analysis;
 
 	/**
 	 * Builds an instance of this class.
@@ -68,6 +68,7 @@ public class CompilationUnitRewrite {
 		this.refactorings= new ASTRewrite(astRoot, environment.getEventLoop(), monitor);
 		this.astBuilder= new ASTNodeFactory(refactorings);
 		this.options= options;
+		this.analysis= new CompilationUnitAnalysis(astRoot);
 	}
 
 	/**
@@ -126,6 +127,16 @@ public class CompilationUnitRewrite {
 		return refactorings;
 	}
 
+	/**
+	 * Returns the facts computed once for the current AST and shared by all the
+	 * cleanup rules.
+	 *
+	 * @return the facts computed once for the current AST
+	 */
+	public CompilationUnitAnalysis getAnalysis() {
+		return analysis;
+	}
+
 	/**
 	 * Get the source.
 	 *
@@ -140,6 +151,15 @@ public class CompilationUnitRewrite {
 		}
 	}
 
+	/**
+	 * Returns the comments of the compilation unit, indexed by position.
+	 *
+	 * @return the comments of the compilation unit, indexed by position
+	 */
+	public CommentIndex getCommentIndex() {
+		return analysis.getCommentIndex();
+	}
+
 	/**
 	 * Is in comment.
 	 *
@@ -147,21 +167,7 @@ public class CompilationUnitRewrite {
 	 * @return True if it is in comment
 	 */
 	public boolean isInComment(final int position) {
-		for (Object object : astRoot.getCommentList()) {
-			Comment comment= (Comment) object;
-
-			if (comment.getStartPosition() <= position && position <= SourceLocation.getEndPosition(comment)) {
-				return true;
-			}
-
-			if (position < comment.getStartPosition()) {
-				// Since comment list is "arranged in order of increasing source position"
-				// it is impossible for this position to be surrounded by a comment
-				return false;
-			}
-		}
-
-		return false;
+		return analysis.getCommentIndex().isInComment(position);
 	}
 
 	/**
@@ -0,0 +1,239 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.corext.refactoring.structure;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.ExpressionMethodReference;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodInvocation;
+import org.eclipse.jdt.core.dom.SuperMethodReference;
+import org.eclipse.jdt.core.dom.TypeMethodReference;
+
+/**
+ * Index of the methods referenced by each compilation unit, shared by all the
+ * cleanup rules and all the workers of a run.
+ * <p>
+ * The compilation units of a package are parsed together on first request. A
+ * compilation unit is parsed again only when its file has changed since it has
+ * been indexed, so the index stays accurate while the cleanups modify the code.
+ * <p>
+ * The keys of the referenced methods also depend on the other files: a call
+ * resolves to another method once an override is added. So the index is
+ * emptied at the start of each run, see {@link #clear()}, and a save action
+ * only forgets the package of the saved compilation unit, see
+ * {@link #invalidate(IPackageFragment)}.
+ */
+public final class MethodReferenceIndex {
+	private static final MethodReferenceIndex INSTANCE= new MethodReferenceIndex();
+
+	private static final class IndexedUnit {
+		private final long modificationStamp;
+		private final Set<String> referencedMethodKeys;
+
+		private IndexedUnit(final long modificationStamp, final Set<String> referencedMethodKeys) {
+			this.modificationStamp= modificationStamp;
+			this.referencedMethodKeys= referencedMethodKeys;
+		}
+	}
+
+	private final Map<ICompilationUnit, IndexedUnit> indexedUnits= new ConcurrentHashMap<>();
+
+	private MethodReferenceIndex() {
+	}
+
+	/**
+	 * Returns the index shared by the whole plugin.
+	 *
+	 * @return the index shared by the whole plugin
+	 */
+	public static MethodReferenceIndex getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * Forgets all the indexed compilation units.
+	 */
+	public void clear() {
+		indexedUnits.clear();
+	}
+
+	/**
+	 * Forgets the indexed compilation units of the package. The other packages
+	 * cannot see the package-private methods of this one.
+	 *
+	 * @param packageFragment the package
+	 */
+	public void invalidate(final IPackageFragment packageFragment) {
+		for (ICompilationUnit unit : indexedUnits.keySet()) {
+			if (packageFragment.equals(unit.getParent())) {
+				indexedUnits.remove(unit);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the method is referenced by a compilation unit of the
+	 * package. The excluded compilation unit is not looked at, because its AST is
+	 * already at hand.
+	 *
+	 * @param methodBinding   the method
+	 * @param packageFragment the package
+	 * @param excludedUnit    the compilation unit to ignore, may be null
+	 * @param monitor         the progress monitor
+	 * @return true if the method is referenced in the package, false otherwise
+	 * @throws JavaModelException if the package cannot be read
+	 */
+	public boolean isReferencedInPackage(final IMethodBinding methodBinding, final IPackageFragment packageFragment,
+			final ICompilationUnit excludedUnit, final IProgressMonitor monitor) throws JavaModelException {
+		final String methodKey= methodBinding.getMethodDeclaration().getKey();
+		final Map<ICompilationUnit, Long> staleUnits= new HashMap<>();
+
+		for (ICompilationUnit unit : packageFragment.getCompilationUnits()) {
+			if (excludedUnit != null && unit.equals(excludedUnit.getPrimary())) {
+				continue;
+			}
+
+			long modificationStamp= getModificationStamp(unit);
+			IndexedUnit indexedUnit= indexedUnits.get(unit);
+
+			if (indexedUnit != null && modificationStamp != IResource.NULL_STAMP
+					&& indexedUnit.modificationStamp == modificationStamp) {
+				if (indexedUnit.referencedMethodKeys.contains(methodKey)) {
+					return true;
+				}
+			} else {
+				staleUnits.put(unit, modificationStamp);
+			}
+		}
+
+		if (staleUnits.isEmpty()) {
+			return false;
+		}
+
+		final AtomicBoolean isReferenced= new AtomicBoolean(false);
+		@SuppressWarnings("deprecation")
+		ASTParser parser= ASTParser.newParser(AST.JLS8);
+		parser.setProject(packageFragment.getJavaProject());
+		parser.setResolveBindings(true);
+		parser.createASTs(staleUnits.keySet().toArray(new ICompilationUnit[staleUnits.size()]), new String[0],
+				new ASTRequestor() {
+					@Override
+					public void acceptAST(final ICompilationUnit source, final CompilationUnit ast) {
+						Set<String> referencedMethodKeys= getReferencedMethodKeys(ast);
+						indexedUnits.put(source, new IndexedUnit(staleUnits.get(source), referencedMethodKeys));
+
+						if (referencedMethodKeys.contains(methodKey)) {
+							isReferenced.set(true);
+						}
+					}
+				}, monitor);
+
+		return isReferenced.get();
+	}
+
+	/**
+	 * Returns the keys of the methods referenced in the provided node. The keys
+	 * are the ones of the generic method declarations.
+	 *
+	 * @param node the node to look into
+	 * @return the keys of the referenced methods
+	 */
+	public static Set<String> getReferencedMethodKeys(final ASTNode node) {
+		final Set<String> referencedMethodKeys= new HashSet<>();
+		node.accept(new ASTVisitor() {
+			@Override
+			public boolean visit(final MethodInvocation visited) {
+				add(visited.resolveMethodBinding());
+				return true;
+			}
+
+			@Override
+			public boolean visit(final SuperMethodInvocation visited) {
+				add(visited.resolveMethodBinding());
+				return true;
+			}
+
+			@Override
+			public boolean visit(final ExpressionMethodReference visited) {
+				add(visited.resolveMethodBinding());
+				return true;
+			}
+
+			@Override
+			public boolean visit(final SuperMethodReference visited) {
+				add(visited.resolveMethodBinding());
+				return true;
+			}
+
+			@Override
+			public boolean visit(final TypeMethodReference visited) {
+				add(visited.resolveMethodBinding());
+				return true;
+			}
+
+			private void add(final IMethodBinding methodBinding) {
+				if (methodBinding != null) {
+					referencedMethodKeys.add(methodBinding.getMethodDeclaration().getKey());
+				}
+			}
+		});
+
+		return Collections.unmodifiableSet(referencedMethodKeys);
+	}
+
+	/**
+	 * Returns the modification stamp of the file, or {@link IResource#NULL_STAMP}
+	 * if the file content is not the content of the compilation unit.
+	 */
+	private static long getModificationStamp(final ICompilationUnit unit) throws JavaModelException {
+		IResource resource= unit.getResource();
+
+		if (resource == null || unit.hasUnsavedChanges()) {
+			return IResource.NULL_STAMP;
+		}
+
+		return resource.getModificationStamp();
+	}
+}
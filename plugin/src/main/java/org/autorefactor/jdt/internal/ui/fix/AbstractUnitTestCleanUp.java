@@ -39,7 +39,6 @@ import org.autorefactor.util.NotImplementedException;
 import org.autorefactor.util.Pair;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTVisitor;
-import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
@@ -93,11 +92,6 @@ public abstract class AbstractUnitTestCleanUp extends NewClassImportCleanUp {
 	 */
 	protected boolean canUseAssertNotEquals;
 
-	/**
-	 * The scan of the class imports.
-	 */
-	protected final Set<String> staticImports= new HashSet<>();
-
 	/**
 	 * Get the actual value and then the expected value.
 	 *
@@ -187,25 +181,6 @@ public abstract class AbstractUnitTestCleanUp extends NewClassImportCleanUp {
 	protected abstract boolean maybeRefactorIfStatement(IfStatement node, Set<String> classesToUseWithImport,
 			Set<String> importsToAdd);
 
-	@Override
-	public boolean visit(final CompilationUnit node) {
-		staticImports.clear();
-
-		for (Object anObject : node.imports()) {
-			ImportDeclaration anImport= (ImportDeclaration) anObject;
-
-			if (anImport.isStatic()) {
-				if (anImport.isOnDemand()) {
-					staticImports.add(anImport.getName().getFullyQualifiedName() + ".*"); //$NON-NLS-1$
-				} else {
-					staticImports.add(anImport.getName().getFullyQualifiedName());
-				}
-			}
-		}
-
-		return super.visit(node);
-	}
-
 	/**
 	 * Maybe refactor the statement.
 	 *
@@ -508,6 +483,7 @@ public abstract class AbstractUnitTestCleanUp extends NewClassImportCleanUp {
 		String qualifiedClassName= originalMethod.resolveMethodBinding().getDeclaringClass().getQualifiedName();
 
 		Expression qualifiedClass;
+		Set<String> staticImports= cuRewrite.getAnalysis().getStaticImports();
 		if (originalMethod.getExpression() == null && !staticImports.contains(qualifiedClassName + "." + methodName) //$NON-NLS-1$
 				&& !staticImports.contains(qualifiedClassName + ".*")) { //$NON-NLS-1$
 			qualifiedClass= ASTNodeFactory.newName(ast, qualifiedClassName);
@@ -28,18 +28,22 @@ package org.autorefactor.jdt.internal.ui.fix;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.JavaRefactoringRule;
+import org.autorefactor.jdt.internal.corext.dom.Profiler;
 import org.autorefactor.jdt.internal.corext.dom.RefactoringRule;
 import org.autorefactor.jdt.internal.corext.dom.Release;
 import org.autorefactor.jdt.internal.corext.refactoring.structure.CompilationUnitRewrite;
@@ -61,6 +65,7 @@ import org.eclipse.jdt.core.dom.AssertStatement;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.BlockComment;
+import org.eclipse.jdt.core.dom.BodyDeclaration;
 import org.eclipse.jdt.core.dom.BooleanLiteral;
 import org.eclipse.jdt.core.dom.BreakStatement;
 import org.eclipse.jdt.core.dom.CastExpression;
@@ -144,20 +149,60 @@ import org.eclipse.jdt.core.dom.WildcardType;
  * Aggregates running several visitors into only one visitor to increase
  * performances. When one visitor refactors a subtree of the AST, visitors
  * coming after will not be able to visit it. Visitors throwing exceptions are
- * isolated and ignored for the rest of a run for stability.
+ * isolated and ignored for the rest of a run for stability. The visitors
+ * implementing {@link MethodSignatureRule} only visit the invocations of the
+ * methods they have registered.
  */
 public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRule {
+	private static final ASTVisitor[] NO_VISITORS= {};
+	/** The concrete node class of each node type, indexed by {@link ASTNode#getNodeType()}. */
+	private static final Class<?>[] NODE_CLASSES= nodeClassesByNodeType();
+	/** The methods overridden by each rule class, computed once for the whole process. */
+	private static final Map<Class<?>, VisitorSignature> VISITOR_SIGNATURES= new ConcurrentHashMap<>();
+
 	private final Map<Class<?>, List<ASTVisitor>> visitorsMap= new HashMap<>();
 	private final Map<Class<?>, List<ASTVisitor>> endVisitorsMap= new HashMap<>();
 	private final Set<ASTVisitor> preVisitors= new LinkedHashSet<>();
 	private final Set<ASTVisitor> preVisitors2= new LinkedHashSet<>();
 	private final Set<ASTVisitor> postVisitors= new LinkedHashSet<>();
+	/** The methods whose invocations some visitors only visit. */
+	private final MethodSignatureRegistry methodSignatureRegistry= new MethodSignatureRegistry();
+
+	/**
+	 * Dispatch tables computed from the maps above for the Java release of the
+	 * current compilation unit, so the visit methods neither look up a map nor
+	 * check the Java version of each visitor.
+	 */
+	private ASTVisitor[][] visitorsByNodeType;
+	private ASTVisitor[][] endVisitorsByNodeType;
+	private ASTVisitor[] preVisitorsArray;
+	private ASTVisitor[] preVisitors2Array;
+	private ASTVisitor[] postVisitorsArray;
+	private Release dispatchTablesRelease;
+	private final Set<ASTVisitor> faultyVisitors= new HashSet<>();
+	/** The visitors allowed to run by {@link #restrictToNodeTypes(BitSet)}, null for all of them. */
+	private Set<ASTVisitor> activeVisitors;
+	/** Whether only some method bodies are visited, see {@link #getRefactorings(Collection)}. */
+	private boolean isPartialVisit;
 
 	private final List<ASTVisitor> visitors;
 
 	private CompilationUnitRewrite cuRewrite;
 	private final Set<ASTVisitor> visitorsContributingRefactoring= new HashSet<>();
 
+	/**
+	 * The time spent, the number of visits and the number of refactorings of each
+	 * visitor when profiling, null otherwise. This instance is only used by one
+	 * worker, so the counters need no synchronization.
+	 */
+	private Map<ASTVisitor, long[]> ruleCounters;
+
+	/**
+	 * The root of the subtree each visitor refused to visit when several visitors
+	 * may change disjoint parts of the same pass, null otherwise.
+	 */
+	private Map<ASTVisitor, ASTNode> suppressedSubtrees;
+
 	/**
 	 * Builds an instance of this class.
 	 *
@@ -192,28 +237,104 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	private void analyzeVisitors() {
 		for (ASTVisitor v : this.visitors) {
-			analyzeVisitor(v, v.getClass());
-		}
-	}
+			VisitorSignature signature= VISITOR_SIGNATURES.computeIfAbsent(v.getClass(), VisitorSignature::new);
 
-	private void analyzeVisitor(final ASTVisitor v, final Class<?> clazz) {
-		if (ASTVisitor.class.equals(clazz)) {
-			return;
-		}
-		for (Method m : clazz.getDeclaredMethods()) {
-			if (is("preVisit", m)) { //$NON-NLS-1$
+			if (signature.hasPreVisit) {
 				preVisitors.add(v);
-			} else if (is("preVisit2", m)) { //$NON-NLS-1$
+			}
+			if (signature.hasPreVisit2) {
 				preVisitors2.add(v);
-			} else if (is("postVisit", m)) { //$NON-NLS-1$
+			}
+			if (signature.hasPostVisit) {
 				postVisitors.add(v);
-			} else if (isVisit(m)) {
-				put(visitorsMap, m.getParameterTypes()[0], v);
-			} else if (isEndVisit(m)) {
-				put(endVisitorsMap, m.getParameterTypes()[0], v);
 			}
+			for (Class<?> nodeClass : signature.visitedNodeClasses) {
+				put(visitorsMap, nodeClass, v);
+			}
+			for (Class<?> nodeClass : signature.endVisitedNodeClasses) {
+				put(endVisitorsMap, nodeClass, v);
+			}
+			if (v instanceof MethodSignatureRule) {
+				((MethodSignatureRule) v).registerMethodSignatures(methodSignatureRegistry);
+			}
+		}
+	}
+
+	/**
+	 * The {@link ASTVisitor} methods overridden by a rule class. It only depends
+	 * on the class, so it is shared by all the instances of the rule.
+	 */
+	private static final class VisitorSignature {
+		private boolean hasPreVisit;
+		private boolean hasPreVisit2;
+		private boolean hasPostVisit;
+		/**
+		 * Whether the rule itself overrides a generic visit method. The one of
+		 * {@link AbstractCleanUpRule} is shared by all the rules and matches no
+		 * particular node.
+		 */
+		private boolean hasOwnGenericVisit;
+		/**
+		 * Whether the rule visits the compilation unit, the types or the members. Such
+		 * rules often keep a state for the enclosing declarations, so they can not
+		 * visit a method body alone.
+		 */
+		private boolean visitsDeclarations;
+		private final Set<Class<?>> visitedNodeClasses= new LinkedHashSet<>();
+		private final Set<Class<?>> endVisitedNodeClasses= new LinkedHashSet<>();
+		/** The types of the nodes visited or end visited, see {@link ASTNode#getNodeType()}. */
+		private final BitSet nodeTypes= new BitSet(NODE_CLASSES.length);
+
+		private VisitorSignature(final Class<?> visitorClass) {
+			boolean isInherited= false;
+			for (Class<?> clazz= visitorClass; clazz != null && !ASTVisitor.class.equals(clazz);
+					clazz= clazz.getSuperclass()) {
+				isInherited|= AbstractCleanUpRule.class.equals(clazz);
+
+				for (Method m : clazz.getDeclaredMethods()) {
+					if (is("preVisit", m)) { //$NON-NLS-1$
+						hasPreVisit= true;
+						hasOwnGenericVisit|= !isInherited;
+					} else if (is("preVisit2", m)) { //$NON-NLS-1$
+						hasPreVisit2= true;
+						hasOwnGenericVisit|= !isInherited;
+					} else if (is("postVisit", m)) { //$NON-NLS-1$
+						hasPostVisit= true;
+						hasOwnGenericVisit|= !isInherited;
+					} else if (isVisit(m)) {
+						visitedNodeClasses.add(m.getParameterTypes()[0]);
+					} else if (isEndVisit(m)) {
+						endVisitedNodeClasses.add(m.getParameterTypes()[0]);
+					}
+				}
+			}
+
+			for (Class<?> nodeClass : visitedNodeClasses) {
+				visitsDeclarations|= isDeclaration(nodeClass);
+			}
+			for (Class<?> nodeClass : endVisitedNodeClasses) {
+				visitsDeclarations|= isDeclaration(nodeClass);
+			}
+
+			for (int nodeType= 1; nodeType < NODE_CLASSES.length; nodeType++) {
+				if (visitedNodeClasses.contains(NODE_CLASSES[nodeType])
+						|| endVisitedNodeClasses.contains(NODE_CLASSES[nodeType])) {
+					nodeTypes.set(nodeType);
+				}
+			}
+		}
+
+		/**
+		 * Returns whether the visitor may match one of the provided node types. The
+		 * visitors overriding the generic visit methods match all of them.
+		 */
+		private boolean matchesAny(final BitSet otherNodeTypes) {
+			return hasOwnGenericVisit || nodeTypes.intersects(otherNodeTypes);
+		}
+
+		private static boolean isDeclaration(final Class<?> nodeClass) {
+			return CompilationUnit.class.equals(nodeClass) || BodyDeclaration.class.isAssignableFrom(nodeClass);
 		}
-		analyzeVisitor(v, clazz.getSuperclass());
 	}
 
 	private static boolean is(final String methodName, final Method m) {
@@ -242,14 +363,61 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 		visitors.add(value);
 	}
 
-	private List<ASTVisitor> getVisitors(final Map<Class<?>, List<ASTVisitor>> map,
-			final Class<? extends ASTNode> clazzKey) {
-		List<ASTVisitor> result= map.get(clazzKey);
-		if (result != null) {
-			return result;
+	private static Class<?>[] nodeClassesByNodeType() {
+		List<Class<?>> nodeClasses= new ArrayList<>();
+		// Node types start at 1
+		nodeClasses.add(null);
+		try {
+			for (int nodeType= 1;; nodeType++) {
+				nodeClasses.add(ASTNode.nodeClassForType(nodeType));
+			}
+		} catch (IllegalArgumentException e) {
+			// No more node types
+		}
+
+		return nodeClasses.toArray(new Class<?>[nodeClasses.size()]);
+	}
+
+	private void buildDispatchTables(final Release javaSERelease) {
+		visitorsByNodeType= new ASTVisitor[NODE_CLASSES.length][];
+		endVisitorsByNodeType= new ASTVisitor[NODE_CLASSES.length][];
+		for (int nodeType= 0; nodeType < NODE_CLASSES.length; nodeType++) {
+			visitorsByNodeType[nodeType]= toArray(visitorsMap.get(NODE_CLASSES[nodeType]), javaSERelease);
+			endVisitorsByNodeType[nodeType]= toArray(endVisitorsMap.get(NODE_CLASSES[nodeType]), null);
+		}
+		preVisitorsArray= toArray(preVisitors, null);
+		preVisitors2Array= toArray(preVisitors2, null);
+		postVisitorsArray= toArray(postVisitors, null);
+		dispatchTablesRelease= javaSERelease;
+	}
+
+	/**
+	 * Returns the usable visitors.
+	 *
+	 * @param visitorsToFilter the visitors to filter, may be null
+	 * @param javaSERelease    when not null, only keep the visitors supporting
+	 *                         this release
+	 * @return the usable visitors, never null
+	 */
+	private ASTVisitor[] toArray(final Collection<ASTVisitor> visitorsToFilter, final Release javaSERelease) {
+		if (visitorsToFilter == null) {
+			return NO_VISITORS;
+		}
+		List<ASTVisitor> result= new ArrayList<>(visitorsToFilter.size());
+		for (ASTVisitor v : visitorsToFilter) {
+			if (!faultyVisitors.contains(v) && (activeVisitors == null || activeVisitors.contains(v))
+					&& (!isPartialVisit || !VISITOR_SIGNATURES.get(v.getClass()).visitsDeclarations)
+					&& (javaSERelease == null || isJavaVersionSupported(v, javaSERelease))) {
+				result.add(v);
+			}
 		}
 
-		return Collections.emptyList();
+		return result.isEmpty() ? NO_VISITORS : result.toArray(new ASTVisitor[result.size()]);
+	}
+
+	private static boolean isSameRelease(final Release release1, final Release release2) {
+		return release1 != null && release2 != null && release1.isCompatibleWith(release2)
+				&& release2.isCompatibleWith(release1);
 	}
 
 	@Override
@@ -257,8 +425,7 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 		return true;
 	}
 
-	private boolean isJavaVersionSupported(final ASTVisitor visitor) {
-		Release javaSERelease= cuRewrite.getJavaProjectOptions().getJavaSERelease();
+	private static boolean isJavaVersionSupported(final ASTVisitor visitor, final Release javaSERelease) {
 		return visitor instanceof JavaRefactoringRule
 				&& ((JavaRefactoringRule) visitor).isJavaVersionSupported(javaSERelease);
 	}
@@ -271,15 +438,97 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 			((RefactoringRule) v).setRefactoringContext(cuRewrite);
 		}
 
+		Release javaSERelease= cuRewrite.getJavaProjectOptions().getJavaSERelease();
+		if (visitorsByNodeType == null || !isSameRelease(javaSERelease, dispatchTablesRelease)) {
+			buildDispatchTables(javaSERelease);
+		}
+
 		this.visitorsContributingRefactoring.clear();
+
+		if (suppressedSubtrees != null) {
+			cuRewrite.getASTRewrite().trackRefactoredRanges();
+			suppressedSubtrees.clear();
+		}
+	}
+
+	/**
+	 * Lets several visitors contribute changes to disjoint source ranges in the
+	 * same pass. A visitor refactoring a node only skips the subtree of this node
+	 * for itself, the other visitors still visit the parts of the subtree which
+	 * have not been changed.
+	 */
+	public void enableDisjointEdits() {
+		suppressedSubtrees= new IdentityHashMap<>();
+		if (cuRewrite != null) {
+			cuRewrite.getASTRewrite().trackRefactoredRanges();
+		}
+	}
+
+	/**
+	 * Only runs the visitors matching the provided node types, until the next
+	 * call. It must be called after {@link #setRefactoringContext(CompilationUnitRewrite)}.
+	 *
+	 * @param nodeTypes the types of the nodes changed by the previous pass, see
+	 *                  {@link ASTNode#getNodeType()}, or null to run all the
+	 *                  visitors
+	 * @return true if some visitors will not run, false if they all run
+	 */
+	public boolean restrictToNodeTypes(final BitSet nodeTypes) {
+		Set<ASTVisitor> newActiveVisitors= null;
+		if (nodeTypes != null) {
+			newActiveVisitors= new HashSet<>();
+			for (ASTVisitor v : visitors) {
+				if (VISITOR_SIGNATURES.get(v.getClass()).matchesAny(nodeTypes)) {
+					newActiveVisitors.add(v);
+				}
+			}
+
+			if (newActiveVisitors.size() == visitors.size()) {
+				newActiveVisitors= null;
+			}
+		}
+
+		if (newActiveVisitors == null ? activeVisitors != null : !newActiveVisitors.equals(activeVisitors)) {
+			activeVisitors= newActiveVisitors;
+			buildDispatchTables(dispatchTablesRelease);
+		}
+
+		return activeVisitors != null;
 	}
 
 	@Override
 	public ASTRewrite getRefactorings(final CompilationUnit astRoot) {
+		setPartialVisit(false);
 		astRoot.accept(this);
 		return cuRewrite.getASTRewrite();
 	}
 
+	/**
+	 * Get the cleanups found by only visiting the provided nodes of the
+	 * compilation unit. The visitors of the compilation unit, the types or the
+	 * members do not run: they only run when visiting the whole compilation unit.
+	 *
+	 * @param nodesToVisit the nodes to visit, typically the method bodies changed
+	 *                     by the previous pass
+	 * @return the cleanups.
+	 */
+	public ASTRewrite getRefactorings(final Collection<? extends ASTNode> nodesToVisit) {
+		setPartialVisit(true);
+
+		for (ASTNode nodeToVisit : nodesToVisit) {
+			nodeToVisit.accept(this);
+		}
+
+		return cuRewrite.getASTRewrite();
+	}
+
+	private void setPartialVisit(final boolean isPartialVisit) {
+		if (this.isPartialVisit != isPartialVisit) {
+			this.isPartialVisit= isPartialVisit;
+			buildDispatchTables(dispatchTablesRelease);
+		}
+	}
+
 	/**
 	 * Get the cleanups.
 	 *
@@ -289,6 +538,16 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 		return cuRewrite.getASTRewrite();
 	}
 
+	/**
+	 * Returns whether a visitor has been disabled because it failed.
+	 *
+	 * @return true if a visitor has been disabled because it failed, false
+	 *         otherwise
+	 */
+	public boolean hasFaultyVisitors() {
+		return !faultyVisitors.isEmpty();
+	}
+
 	/**
 	 * Returns the visitors that contributed cleanups in the last run.
 	 *
@@ -298,6 +557,72 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 		return visitorsContributingRefactoring;
 	}
 
+	/**
+	 * Starts counting the time spent and the nodes visited by each visitor.
+	 */
+	public void startProfiling() {
+		ruleCounters= new IdentityHashMap<>();
+		for (ASTVisitor v : visitors) {
+			ruleCounters.put(v, new long[3]);
+		}
+	}
+
+	/**
+	 * Adds the counters of each visitor to the provided profiler, then resets
+	 * them.
+	 *
+	 * @param profiler the profiler of the current run
+	 */
+	public void reportProfile(final Profiler profiler) {
+		if (ruleCounters == null) {
+			return;
+		}
+
+		for (Map.Entry<ASTVisitor, long[]> entry : ruleCounters.entrySet()) {
+			long[] counters= entry.getValue();
+			if (counters[1] > 0) {
+				profiler.recordRule(entry.getKey().getClass().getSimpleName(), counters[0], counters[1], counters[2]);
+				Arrays.fill(counters, 0L);
+			}
+		}
+	}
+
+	private boolean isRefactoredSubtree(final ASTNode node) {
+		return suppressedSubtrees != null && cuRewrite.getASTRewrite().hasBeenRefactored(node);
+	}
+
+	private boolean isVisitSuppressed(final ASTVisitor v, final ASTNode node) {
+		return suppressedSubtrees != null
+				&& (isInSuppressedSubtree(v, node) || cuRewrite.getASTRewrite().hasBeenRefactored(node));
+	}
+
+	private boolean isEndVisitSuppressed(final ASTVisitor v, final ASTNode node) {
+		return suppressedSubtrees != null && isInSuppressedSubtree(v, node);
+	}
+
+	private boolean isInSuppressedSubtree(final ASTVisitor v, final ASTNode node) {
+		ASTNode suppressedSubtree= suppressedSubtrees.get(v);
+		return suppressedSubtree != null && suppressedSubtree != node;
+	}
+
+	private void leaveSuppressedSubtrees(final ASTNode node) {
+		if (suppressedSubtrees != null && !suppressedSubtrees.isEmpty()) {
+			suppressedSubtrees.values().removeAll(Collections.singleton(node));
+		}
+	}
+
+	private long startTiming() {
+		return ruleCounters != null ? System.nanoTime() : 0L;
+	}
+
+	private void stopTiming(final ASTVisitor v, final long start) {
+		if (ruleCounters != null) {
+			long[] counters= ruleCounters.get(v);
+			counters[0]+= System.nanoTime() - start;
+			counters[1]++;
+		}
+	}
+
 	/**
 	 * Verify whether the following visitors can visit the current node.
 	 *
@@ -314,7 +639,17 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 				logBadlyBehavedVisitor(v, node);
 			} else {
 				visitorsContributingRefactoring.add(v);
+				if (ruleCounters != null) {
+					ruleCounters.get(v)[2]++;
+				}
+			}
+
+			if (suppressedSubtrees != null) {
+				// Only this visitor skips the subtree, the others may change its untouched parts
+				suppressedSubtrees.put(v, node);
+				return true;
 			}
+
 			// Changes will be made to this node.
 			// no other visitors can make any more changes to it
 			// => do not let other visitors visit this node
@@ -338,6 +673,8 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 		String message= "Visitor " + v.getClass().getName() + " is faulty," //$NON-NLS-1$ //$NON-NLS-2$
 				+ " it will be disabled for the rest of this run."; //$NON-NLS-1$
 		cuRewrite.getLogger().error(message, new UnhandledException(node, message, e));
+		faultyVisitors.add(v);
+		buildDispatchTables(dispatchTablesRelease);
 	}
 
 	/**
@@ -365,33 +702,53 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 			boolean isVisit= isVisit(m);
 			boolean isEndVisit= isEndVisit(m);
 			boolean isPrevisit2= is("preVisit2", m); //$NON-NLS-1$
-			if (isVisit || isEndVisit) {
-				System.out.print("\tfinal List<ASTVisitor> visitorList = getVisitors("); //$NON-NLS-1$
-				System.out.print((isVisit ? "visitorsMap" : "endVisitorsMap") + ", "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-				System.out.println(m.getParameterTypes()[0].getSimpleName() + ".class);"); //$NON-NLS-1$
+			boolean isMethodInvocationVisit= isVisit && MethodInvocation.class.equals(paramTypes[0]);
+			if (isMethodInvocationVisit) {
+				System.out.println("\tSet<ASTVisitor> matchingRules= null;"); //$NON-NLS-1$
+			}
+			if (isPrevisit2) {
+				System.out.println("\tif (isRefactoredSubtree(node)) {"); //$NON-NLS-1$
+				System.out.println("\t\treturn DO_NOT_VISIT_SUBTREE;"); //$NON-NLS-1$
+				System.out.println("\t}"); //$NON-NLS-1$
 			}
-			System.out.print("\tfor (Iterator<ASTVisitor> iter = "); //$NON-NLS-1$
+			System.out.print("\tfor (ASTVisitor v : "); //$NON-NLS-1$
 			if (is("preVisit", m)) { //$NON-NLS-1$
-				System.out.print("preVisitors"); //$NON-NLS-1$
+				System.out.print("preVisitorsArray"); //$NON-NLS-1$
 			} else if (isPrevisit2) {
-				System.out.print("preVisitors2"); //$NON-NLS-1$
+				System.out.print("preVisitors2Array"); //$NON-NLS-1$
 			} else if (is("postVisit", m)) { //$NON-NLS-1$
-				System.out.print("postVisitors"); //$NON-NLS-1$
-			} else if (isVisit || isEndVisit) {
-				System.out.print("visitorList"); //$NON-NLS-1$
+				System.out.print("postVisitorsArray"); //$NON-NLS-1$
+			} else if (isVisit) {
+				System.out.print("visitorsByNodeType[node.getNodeType()]"); //$NON-NLS-1$
+			} else if (isEndVisit) {
+				System.out.print("endVisitorsByNodeType[node.getNodeType()]"); //$NON-NLS-1$
 			} else {
 				throw new NotImplementedException(null, "for method " + m); //$NON-NLS-1$
 			}
-			System.out.println(".iterator(); iter.hasNext();) {"); //$NON-NLS-1$
-			System.out.println("\t\tfinal ASTVisitor v = iter.next();"); //$NON-NLS-1$
+			System.out.println(") {"); //$NON-NLS-1$
+			if (isVisit || isEndVisit) {
+				System.out.println("\t\tif (is" + (isVisit ? "" : "End") + "VisitSuppressed(v, node)) {"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				System.out.println("\t\t\tcontinue;"); //$NON-NLS-1$
+				System.out.println("\t\t}"); //$NON-NLS-1$
+			}
+			if (isMethodInvocationVisit) {
+				System.out.println("\t\tif (methodSignatureRegistry.hasRegistered(v)) {"); //$NON-NLS-1$
+				System.out.println("\t\t\tif (matchingRules == null) {"); //$NON-NLS-1$
+				System.out.println("\t\t\t\tmatchingRules= methodSignatureRegistry.getMatchingRules(node);"); //$NON-NLS-1$
+				System.out.println("\t\t\t}"); //$NON-NLS-1$
+				System.out.println("\t\t\tif (!matchingRules.contains(v)) {"); //$NON-NLS-1$
+				System.out.println("\t\t\t\tcontinue;"); //$NON-NLS-1$
+				System.out.println("\t\t\t}"); //$NON-NLS-1$
+				System.out.println("\t\t}"); //$NON-NLS-1$
+			}
+			System.out.println("\t\tlong start= startTiming();"); //$NON-NLS-1$
 			System.out.println("\t\ttry {"); //$NON-NLS-1$
 			if (isPrevisit2) {
 				System.out.println("\t\t\tif (!v." + m.getName() + "(node)) {"); //$NON-NLS-1$ //$NON-NLS-2$
 				System.out.println("\t\t\t\treturn DO_NOT_VISIT_SUBTREE;"); //$NON-NLS-1$
 				System.out.println("\t\t\t}"); //$NON-NLS-1$
 			} else if (Boolean.TYPE.equals(m.getReturnType())) {
-				System.out.println("\t\t\tif (isJavaVersionSupported(v)"); //$NON-NLS-1$
-				System.out.println("\t\t\t\t\t&& !continueVisiting(v." + m.getName() + "(node), v, node)) {"); //$NON-NLS-1$ //$NON-NLS-2$
+				System.out.println("\t\t\tif (!continueVisiting(v." + m.getName() + "(node), v, node)) {"); //$NON-NLS-1$ //$NON-NLS-2$
 				System.out.println("\t\t\t\treturn DO_NOT_VISIT_SUBTREE;"); //$NON-NLS-1$
 				System.out.println("\t\t\t}"); //$NON-NLS-1$
 			} else {
@@ -399,9 +756,13 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 			}
 			System.out.println("\t\t} catch (Exception e) {"); //$NON-NLS-1$
 			System.out.println("\t\t\tlogFaultyVisitor(v, node, e);"); //$NON-NLS-1$
-			System.out.println("\t\t\titer.remove();"); //$NON-NLS-1$
+			System.out.println("\t\t} finally {"); //$NON-NLS-1$
+			System.out.println("\t\t\tstopTiming(v, start);"); //$NON-NLS-1$
 			System.out.println("\t\t}"); //$NON-NLS-1$
 			System.out.println("\t}"); //$NON-NLS-1$
+			if (is("postVisit", m)) { //$NON-NLS-1$
+				System.out.println("\tleaveSuppressedSubtrees(node);"); //$NON-NLS-1$
+			}
 			if (Boolean.TYPE.equals(m.getReturnType())) {
 				System.out.println("\treturn VISIT_SUBTREE;"); //$NON-NLS-1$
 			}
@@ -412,1217 +773,1476 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public void endVisit(final AnnotationTypeDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, AnnotationTypeDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final AnnotationTypeMemberDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, AnnotationTypeMemberDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final AnonymousClassDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, AnonymousClassDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ArrayAccess node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ArrayAccess.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ArrayCreation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ArrayCreation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ArrayInitializer node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ArrayInitializer.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ArrayType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ArrayType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final AssertStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, AssertStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final Assignment node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, Assignment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final Block node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, Block.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final BlockComment node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, BlockComment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final BooleanLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, BooleanLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final BreakStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, BreakStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final CastExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, CastExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final CatchClause node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, CatchClause.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final CharacterLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, CharacterLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ClassInstanceCreation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ClassInstanceCreation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final CompilationUnit node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, CompilationUnit.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ConditionalExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ConditionalExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ConstructorInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ConstructorInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ContinueStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ContinueStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final DoStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, DoStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final EmptyStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, EmptyStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final EnhancedForStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, EnhancedForStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final EnumConstantDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, EnumConstantDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final EnumDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, EnumDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ExpressionStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ExpressionStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final FieldAccess node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, FieldAccess.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final FieldDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, FieldDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ForStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ForStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final IfStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, IfStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ImportDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ImportDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final InfixExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, InfixExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final Initializer node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, Initializer.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final InstanceofExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, InstanceofExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final Javadoc node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, Javadoc.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final LabeledStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, LabeledStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final LineComment node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, LineComment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MarkerAnnotation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MarkerAnnotation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MemberRef node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MemberRef.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MemberValuePair node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MemberValuePair.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MethodDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MethodDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MethodInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MethodInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MethodRef node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MethodRef.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final MethodRefParameter node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, MethodRefParameter.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final Modifier node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, Modifier.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final NormalAnnotation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, NormalAnnotation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final NullLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, NullLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final NumberLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, NumberLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final PackageDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, PackageDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ParameterizedType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ParameterizedType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ParenthesizedExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ParenthesizedExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final PostfixExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, PostfixExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final PrefixExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, PrefixExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final PrimitiveType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, PrimitiveType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final QualifiedName node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, QualifiedName.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final QualifiedType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, QualifiedType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ReturnStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ReturnStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SimpleName node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SimpleName.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SimpleType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SimpleType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SingleMemberAnnotation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SingleMemberAnnotation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SingleVariableDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SingleVariableDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final StringLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, StringLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SuperConstructorInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SuperConstructorInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SuperFieldAccess node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SuperFieldAccess.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SuperMethodInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SuperMethodInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SwitchCase node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SwitchCase.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SwitchStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SwitchStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final SynchronizedStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, SynchronizedStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TagElement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TagElement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TextElement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TextElement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ThisExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ThisExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final ThrowStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, ThrowStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TryStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TryStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TypeDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TypeDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TypeDeclarationStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TypeDeclarationStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TypeLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TypeLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final TypeParameter node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, TypeParameter.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final UnionType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, UnionType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final VariableDeclarationExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, VariableDeclarationExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final VariableDeclarationFragment node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, VariableDeclarationFragment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final VariableDeclarationStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, VariableDeclarationStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final WhileStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, WhileStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void endVisit(final WildcardType node) {
-		List<ASTVisitor> visitorList= getVisitors(endVisitorsMap, WildcardType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : endVisitorsByNodeType[node.getNodeType()]) {
+			if (isEndVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
 				v.endVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public void postVisit(final ASTNode node) {
-		for (Iterator<ASTVisitor> iter= postVisitors.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : postVisitorsArray) {
+			long start= startTiming();
 			try {
 				v.postVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
+		leaveSuppressedSubtrees(node);
 	}
 
 	@Override
 	public void preVisit(final ASTNode node) {
-		for (Iterator<ASTVisitor> iter= preVisitors.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : preVisitorsArray) {
+			long start= startTiming();
 			try {
 				v.preVisit(node);
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 	}
 
 	@Override
 	public boolean preVisit2(final ASTNode node) {
-		for (Iterator<ASTVisitor> iter= preVisitors2.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		if (isRefactoredSubtree(node)) {
+			return false;
+		}
+		for (ASTVisitor v : preVisitors2Array) {
+			long start= startTiming();
 			try {
 				if (!v.preVisit2(node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1631,16 +2251,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final AnnotationTypeDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, AnnotationTypeDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1649,16 +2272,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final AnnotationTypeMemberDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, AnnotationTypeMemberDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1667,16 +2293,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final AnonymousClassDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, AnonymousClassDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1685,16 +2314,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ArrayAccess node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ArrayAccess.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1703,16 +2335,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ArrayCreation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ArrayCreation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1721,16 +2356,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ArrayInitializer node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ArrayInitializer.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1739,16 +2377,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ArrayType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ArrayType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1757,16 +2398,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final AssertStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, AssertStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1775,16 +2419,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final Assignment node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, Assignment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1793,16 +2440,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final Block node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, Block.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1811,16 +2461,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final BlockComment node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, BlockComment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1829,16 +2482,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final BooleanLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, BooleanLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1847,16 +2503,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final BreakStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, BreakStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1865,16 +2524,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final CastExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, CastExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1883,16 +2545,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final CatchClause node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, CatchClause.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1901,16 +2566,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final CharacterLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, CharacterLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1919,16 +2587,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ClassInstanceCreation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ClassInstanceCreation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1937,16 +2608,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final CompilationUnit node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, CompilationUnit.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1955,16 +2629,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ConditionalExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ConditionalExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1973,16 +2650,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ConstructorInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ConstructorInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -1991,16 +2671,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ContinueStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ContinueStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2009,16 +2692,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final CreationReference node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, CreationReference.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2027,16 +2713,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final DoStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, DoStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2045,16 +2734,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final EmptyStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, EmptyStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2063,16 +2755,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final EnhancedForStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, EnhancedForStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2081,16 +2776,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final EnumConstantDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, EnumConstantDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2099,16 +2797,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final EnumDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, EnumDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2117,16 +2818,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ExpressionMethodReference node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ExpressionMethodReference.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2135,16 +2839,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ExpressionStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ExpressionStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2153,16 +2860,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final FieldAccess node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, FieldAccess.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2171,16 +2881,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final FieldDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, FieldDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2189,16 +2902,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ForStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ForStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2207,16 +2923,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final IfStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, IfStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2225,16 +2944,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ImportDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ImportDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2243,16 +2965,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final InfixExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, InfixExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2261,16 +2986,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final Initializer node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, Initializer.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2279,16 +3007,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final InstanceofExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, InstanceofExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2297,16 +3028,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final Javadoc node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, Javadoc.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2315,16 +3049,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final LabeledStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, LabeledStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2333,16 +3070,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final LambdaExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, LambdaExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2351,16 +3091,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final LineComment node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, LineComment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2369,16 +3112,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MarkerAnnotation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MarkerAnnotation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2387,16 +3133,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MemberRef node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MemberRef.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2405,16 +3154,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MemberValuePair node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MemberValuePair.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2423,16 +3175,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MethodDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MethodDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2441,16 +3196,28 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MethodInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MethodInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		Set<ASTVisitor> matchingRules= null;
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			if (methodSignatureRegistry.hasRegistered(v)) {
+				if (matchingRules == null) {
+					matchingRules= methodSignatureRegistry.getMatchingRules(node);
+				}
+				if (!matchingRules.contains(v)) {
+					continue;
+				}
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2459,16 +3226,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MethodRef node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MethodRef.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2477,16 +3247,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final MethodRefParameter node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, MethodRefParameter.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2495,16 +3268,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final Modifier node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, Modifier.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2513,16 +3289,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final NormalAnnotation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, NormalAnnotation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2531,16 +3310,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final NullLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, NullLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2549,16 +3331,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final NumberLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, NumberLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2567,16 +3352,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final PackageDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, PackageDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2585,16 +3373,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ParameterizedType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ParameterizedType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2603,16 +3394,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ParenthesizedExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ParenthesizedExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2621,16 +3415,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final PostfixExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, PostfixExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2639,16 +3436,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final PrefixExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, PrefixExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2657,16 +3457,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final PrimitiveType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, PrimitiveType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2675,16 +3478,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final QualifiedName node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, QualifiedName.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2693,16 +3499,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final QualifiedType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, QualifiedType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2711,16 +3520,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ReturnStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ReturnStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2729,16 +3541,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SimpleName node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SimpleName.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2747,16 +3562,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SimpleType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SimpleType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2765,16 +3583,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SingleMemberAnnotation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SingleMemberAnnotation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2783,16 +3604,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SingleVariableDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SingleVariableDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2801,16 +3625,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final StringLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, StringLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2819,16 +3646,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SuperConstructorInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SuperConstructorInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2837,16 +3667,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SuperFieldAccess node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SuperFieldAccess.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2855,16 +3688,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SuperMethodInvocation node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SuperMethodInvocation.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2873,16 +3709,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SuperMethodReference node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SuperMethodReference.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2891,16 +3730,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SwitchCase node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SwitchCase.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2909,16 +3751,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SwitchStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SwitchStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2927,16 +3772,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final SynchronizedStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, SynchronizedStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2945,16 +3793,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TagElement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TagElement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2963,16 +3814,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TextElement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TextElement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2981,16 +3835,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ThisExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ThisExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -2999,16 +3856,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final ThrowStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, ThrowStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3017,16 +3877,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TryStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TryStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3035,16 +3898,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TypeDeclaration node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TypeDeclaration.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3053,16 +3919,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TypeDeclarationStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TypeDeclarationStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3071,16 +3940,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TypeLiteral node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TypeLiteral.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3089,16 +3961,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TypeMethodReference node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TypeMethodReference.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3107,16 +3982,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final TypeParameter node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, TypeParameter.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3125,16 +4003,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final UnionType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, UnionType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3143,16 +4024,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final VariableDeclarationExpression node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, VariableDeclarationExpression.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3161,16 +4045,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final VariableDeclarationFragment node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, VariableDeclarationFragment.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3179,16 +4066,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final VariableDeclarationStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, VariableDeclarationStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3197,16 +4087,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final WhileStatement node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, WhileStatement.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
@@ -3215,16 +4108,19 @@ public class AggregateASTVisitor extends ASTVisitor implements JavaRefactoringRu
 
 	@Override
 	public boolean visit(final WildcardType node) {
-		List<ASTVisitor> visitorList= getVisitors(visitorsMap, WildcardType.class);
-		for (Iterator<ASTVisitor> iter= visitorList.iterator(); iter.hasNext();) {
-			ASTVisitor v= iter.next();
+		for (ASTVisitor v : visitorsByNodeType[node.getNodeType()]) {
+			if (isVisitSuppressed(v, node)) {
+				continue;
+			}
+			long start= startTiming();
 			try {
-				if (isJavaVersionSupported(v) && !continueVisiting(v.visit(node), v, node)) {
+				if (!continueVisiting(v.visit(node), v, node)) {
 					return false;
 				}
 			} catch (Exception e) {
 				logFaultyVisitor(v, node, e);
-				iter.remove();
+			} finally {
+				stopTiming(v, start);
 			}
 		}
 
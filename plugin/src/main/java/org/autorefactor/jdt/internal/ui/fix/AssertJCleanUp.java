@@ -233,6 +233,7 @@ public class AssertJCleanUp extends AbstractUnitTestCleanUp {
 			qualifiedClass= null;
 		}
 
+		Set<String> staticImports= cuRewrite.getAnalysis().getStaticImports();
 		if (originalMethod.getExpression() == null && !staticImports.contains(qualifiedClassName + "." + methodName) //$NON-NLS-1$
 				&& !staticImports.contains(qualifiedClassName + ".*")) { //$NON-NLS-1$
 			qualifiedClass= ASTNodeFactory.newName(ast, qualifiedClassName);
@@ -37,7 +37,7 @@ import org.eclipse.jdt.core.dom.StringLiteral;
 import org.eclipse.text.edits.TextEditGroup;
 
 /** See {@link #getDescription()} method. */
-public class BooleanConstantRatherThanValueOfCleanUp extends AbstractCleanUpRule {
+public class BooleanConstantRatherThanValueOfCleanUp extends AbstractCleanUpRule implements MethodSignatureRule {
 	@Override
 	public String getName() {
 		return MultiFixMessages.BooleanConstantRatherThanValueOfCleanUp_name;
@@ -53,6 +53,12 @@ public class BooleanConstantRatherThanValueOfCleanUp extends AbstractCleanUpRule
 		return MultiFixMessages.BooleanConstantRatherThanValueOfCleanUp_reason;
 	}
 
+	@Override
+	public void registerMethodSignatures(final MethodSignatureRegistry registry) {
+		registry.register(this, Boolean.class.getCanonicalName(), "valueOf", boolean.class.getSimpleName()); //$NON-NLS-1$
+		registry.register(this, Boolean.class.getCanonicalName(), "valueOf", String.class.getCanonicalName()); //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean visit(final MethodInvocation visited) {
 		if (ASTNodes.usesGivenSignature(visited, Boolean.class.getCanonicalName(), "valueOf", boolean.class.getSimpleName())) { //$NON-NLS-1$
@@ -32,7 +32,6 @@ import java.util.List;
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
 import org.eclipse.jdt.core.dom.Assignment;
@@ -126,13 +125,13 @@ public class DoWhileRatherThanWhileCleanUp extends AbstractCleanUpRule {
 					return null;
 				}
 
-				VarDefinitionsUsesVisitor visitor= new VarDefinitionsUsesVisitor((IVariableBinding) variable.resolveBinding(), precedingStatement, true);
+				IVariableBinding variableBinding= (IVariableBinding) variable.resolveBinding();
 
-				if (visitor.getWrites().size() > 1) {
+				if (cuRewrite.getAnalysis().getWrites(variableBinding, precedingStatement).size() > 1) {
 					return null;
 				}
 
-				for (SimpleName astNode : visitor.getReads()) {
+				for (SimpleName astNode : cuRewrite.getAnalysis().getReads(variableBinding, precedingStatement)) {
 					ASTNode parent= astNode.getParent();
 
 					while (parent instanceof ParenthesizedExpression) {
@@ -40,7 +40,6 @@ import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.CollectorVisitor;
 import org.autorefactor.jdt.internal.corext.dom.TypeNameDecider;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.autorefactor.util.IllegalStateException;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Block;
@@ -231,8 +230,7 @@ public class EntrySetRatherThanKeySetAndValueSearchCleanUp extends AbstractClean
 		ASTNodeFactory ast= cuRewrite.getASTBuilder();
 		TextEditGroup group= new TextEditGroup(MultiFixMessages.EntrySetRatherThanKeySetAndValueSearchCleanUp_description);
 
-		VarDefinitionsUsesVisitor keyUseVisitor= new VarDefinitionsUsesVisitor(parameter.resolveBinding(), enhancedFor.getBody(), true);
-		int keyUses= keyUseVisitor.getReads().size();
+		int keyUses= cuRewrite.getAnalysis().getReads(parameter.resolveBinding(), enhancedFor.getBody()).size();
 
 		int insertionPoint= ASTNodes.asList(enhancedFor.getBody()).get(0).getStartPosition() - 1;
 		String entryVar= new VariableNameDecider(enhancedFor.getBody(), insertionPoint).suggest("entry", "mapEntry"); //$NON-NLS-1$ //$NON-NLS-2$
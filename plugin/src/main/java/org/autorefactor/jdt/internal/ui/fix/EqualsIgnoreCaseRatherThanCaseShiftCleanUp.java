@@ -34,7 +34,7 @@ import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.text.edits.TextEditGroup;
 
 /** See {@link #getDescription()} method. */
-public class EqualsIgnoreCaseRatherThanCaseShiftCleanUp extends AbstractCleanUpRule {
+public class EqualsIgnoreCaseRatherThanCaseShiftCleanUp extends AbstractCleanUpRule implements MethodSignatureRule {
 	@Override
 	public String getName() {
 		return MultiFixMessages.EqualsIgnoreCaseRatherThanCaseShiftCleanUp_name;
@@ -50,6 +50,12 @@ public class EqualsIgnoreCaseRatherThanCaseShiftCleanUp extends AbstractCleanUpR
 		return MultiFixMessages.EqualsIgnoreCaseRatherThanCaseShiftCleanUp_reason;
 	}
 
+	@Override
+	public void registerMethodSignatures(final MethodSignatureRegistry registry) {
+		registry.register(this, String.class.getCanonicalName(), "equals", Object.class.getCanonicalName()); //$NON-NLS-1$
+		registry.register(this, String.class.getCanonicalName(), "equalsIgnoreCase", String.class.getCanonicalName()); //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean visit(final MethodInvocation visited) {
 		if (ASTNodes.usesGivenSignature(visited, String.class.getCanonicalName(), "equals", Object.class.getCanonicalName())) { //$NON-NLS-1$
@@ -0,0 +1,136 @@
+/*
+ * AutoRefactor - Eclipse plugin to automatically refactor Java code bases.
+ *
+ * Copyright (C) 2020 Fabrice Tiercelin - initial API and implementation
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program under LICENSE-GNUGPL.  If not, see
+ * <http://www.gnu.org/licenses/>.
+ *
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution under LICENSE-ECLIPSE, and is
+ * available at http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.autorefactor.jdt.internal.ui.fix;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+
+/**
+ * The method signatures registered by the rules of an
+ * {@link AggregateASTVisitor}, see {@link MethodSignatureRule}.
+ * <p>
+ * The signatures are indexed by method name, so a method invocation is only
+ * matched against the signatures with the same name and the same arity. The
+ * hierarchy checks of {@link ASTNodes#usesGivenSignature(IMethodBinding, String, String, String...)}
+ * are remembered for the whole run.
+ */
+public final class MethodSignatureRegistry {
+	private static final class MethodSignature {
+		private final ASTVisitor rule;
+		private final String typeQualifiedName;
+		private final String methodName;
+		private final String[] parameterTypesQualifiedNames;
+
+		private MethodSignature(final ASTVisitor rule, final String typeQualifiedName, final String methodName,
+				final String[] parameterTypesQualifiedNames) {
+			this.rule= rule;
+			this.typeQualifiedName= typeQualifiedName;
+			this.methodName= methodName;
+			this.parameterTypesQualifiedNames= parameterTypesQualifiedNames;
+		}
+	}
+
+	private final Map<String, List<MethodSignature>> signaturesByMethodName= new HashMap<>();
+	private final Set<ASTVisitor> registeredRules= Collections.newSetFromMap(new IdentityHashMap<ASTVisitor, Boolean>());
+
+	/**
+	 * Registers a method whose invocations are visited by the provided rule.
+	 *
+	 * @param rule                         the rule
+	 * @param typeQualifiedName            the qualified name of the type declaring
+	 *                                     the method
+	 * @param methodName                   the method name
+	 * @param parameterTypesQualifiedNames the qualified names of the parameter
+	 *                                     types
+	 */
+	public void register(final ASTVisitor rule, final String typeQualifiedName, final String methodName,
+			final String... parameterTypesQualifiedNames) {
+		List<MethodSignature> signatures= signaturesByMethodName.get(methodName);
+		if (signatures == null) {
+			signatures= new ArrayList<>();
+			signaturesByMethodName.put(methodName, signatures);
+		}
+
+		signatures.add(new MethodSignature(rule, typeQualifiedName, methodName, parameterTypesQualifiedNames));
+		registeredRules.add(rule);
+	}
+
+	/**
+	 * Returns whether the provided rule only visits the invocations of its
+	 * registered methods.
+	 *
+	 * @param rule the rule
+	 * @return true if the rule has registered methods, false otherwise
+	 */
+	boolean hasRegistered(final ASTVisitor rule) {
+		return registeredRules.contains(rule);
+	}
+
+	/**
+	 * Returns the rules having registered the method invoked by the provided
+	 * node. The method binding is resolved once for all the rules.
+	 *
+	 * @param node the method invocation
+	 * @return the rules having registered the invoked method
+	 */
+	Set<ASTVisitor> getMatchingRules(final MethodInvocation node) {
+		List<MethodSignature> signatures= signaturesByMethodName.get(node.getName().getIdentifier());
+		if (signatures == null) {
+			return Collections.emptySet();
+		}
+
+		IMethodBinding methodBinding= node.resolveMethodBinding();
+		if (methodBinding == null) {
+			return Collections.emptySet();
+		}
+
+		int arity= methodBinding.getParameterTypes().length;
+		Set<ASTVisitor> matchingRules= null;
+		for (MethodSignature signature : signatures) {
+			if (signature.parameterTypesQualifiedNames.length == arity
+					&& (matchingRules == null || !matchingRules.contains(signature.rule))
+					&& ASTNodes.usesGivenSignature(methodBinding, signature.typeQualifiedName, signature.methodName,
+							signature.parameterTypesQualifiedNames)) {
+				if (matchingRules == null) {
+					matchingRules= Collections.newSetFromMap(new IdentityHashMap<ASTVisitor, Boolean>());
+				}
+				matchingRules.add(signature.rule);
+			}
+		}
+
+		return matchingRules != null ? matchingRules : Collections.<ASTVisitor>emptySet();
+	}
+}
@@ -38,7 +38,7 @@ import org.eclipse.jdt.core.dom.QualifiedName;
 import org.eclipse.text.edits.TextEditGroup;
 
 /** See {@link #getDescription()} method. */
-public class NamedMethodRatherThanLogLevelParameterCleanUp extends AbstractCleanUpRule {
+public class NamedMethodRatherThanLogLevelParameterCleanUp extends AbstractCleanUpRule implements MethodSignatureRule {
 	@Override
 	public String getName() {
 		return MultiFixMessages.NamedMethodRatherThanLogLevelParameterCleanUp_name;
@@ -54,6 +54,11 @@ public class NamedMethodRatherThanLogLevelParameterCleanUp extends AbstractClean
 		return MultiFixMessages.NamedMethodRatherThanLogLevelParameterCleanUp_reason;
 	}
 
+	@Override
+	public void registerMethodSignatures(final MethodSignatureRegistry registry) {
+		registry.register(this, Logger.class.getCanonicalName(), "log", Level.class.getCanonicalName(), String.class.getCanonicalName()); //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean visit(final MethodInvocation visited) {
 		if (ASTNodes.usesGivenSignature(visited, Logger.class.getCanonicalName(), "log", Level.class.getCanonicalName(), String.class.getCanonicalName())) { //$NON-NLS-1$
@@ -37,7 +37,6 @@ import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.ForLoops;
 import org.autorefactor.jdt.internal.corext.dom.ForLoops.ForLoopContent;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ArrayAccess;
 import org.eclipse.jdt.core.dom.EnhancedForStatement;
@@ -204,9 +203,7 @@ public class ObsoleteAddAllRatherThanLoopCleanUp extends NewClassImportCleanUp {
 
 	private int getVariableUseCount(final IVariableBinding variableBinding, final Statement toVisit) {
 		if (variableBinding != null) {
-			VarDefinitionsUsesVisitor variableUseVisitor= new VarDefinitionsUsesVisitor(variableBinding,
-			toVisit, true);
-			return variableUseVisitor.getReads().size();
+			return cuRewrite.getAnalysis().getReads(variableBinding, toVisit).size();
 		}
 
 		return 0;
@@ -35,7 +35,7 @@ import org.eclipse.jdt.core.dom.StringLiteral;
 import org.eclipse.text.edits.TextEditGroup;
 
 /** See {@link #getDescription()} method. */
-public class ObsoleteCharacterParameterRatherThanStringCleanUp extends AbstractCleanUpRule {
+public class ObsoleteCharacterParameterRatherThanStringCleanUp extends AbstractCleanUpRule implements MethodSignatureRule {
 	@Override
 	public String getName() {
 		return MultiFixMessages.ObsoleteCharacterParameterRatherThanStringCleanUp_name;
@@ -51,6 +51,14 @@ public class ObsoleteCharacterParameterRatherThanStringCleanUp extends AbstractC
 		return MultiFixMessages.ObsoleteCharacterParameterRatherThanStringCleanUp_reason;
 	}
 
+	@Override
+	public void registerMethodSignatures(final MethodSignatureRegistry registry) {
+		registry.register(this, String.class.getCanonicalName(), "indexOf", String.class.getCanonicalName()); //$NON-NLS-1$
+		registry.register(this, String.class.getCanonicalName(), "lastIndexOf", String.class.getCanonicalName()); //$NON-NLS-1$
+		registry.register(this, String.class.getCanonicalName(), "indexOf", String.class.getCanonicalName(), int.class.getCanonicalName()); //$NON-NLS-1$
+		registry.register(this, String.class.getCanonicalName(), "lastIndexOf", String.class.getCanonicalName(), int.class.getCanonicalName()); //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean visit(final MethodInvocation visited) {
 		if (ASTNodes.usesGivenSignature(visited, String.class.getCanonicalName(), "indexOf", String.class.getCanonicalName()) //$NON-NLS-1$
@@ -30,15 +30,18 @@ package org.autorefactor.jdt.internal.ui.fix;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTMatcherSameVariablesAndMethods;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
+import org.autorefactor.jdt.internal.corext.dom.ASTSemanticHasher;
 import org.autorefactor.jdt.internal.corext.dom.ASTSemanticMatcher;
 import org.autorefactor.jdt.internal.corext.dom.VarConflictVisitor;
 import org.autorefactor.util.IllegalStateException;
@@ -118,12 +121,21 @@ public class ObsoleteCommonCodeInIfElseStatementCleanUp extends AbstractCleanUpR
 	private List<Integer> getMatchingCases(final List<List<Statement>> allCasesStatements,
 			final ASTSemanticMatcher matcher) {
 		List<Pair<Statement, List<Integer>>> matchingCases= new ArrayList<>();
+		// Only the statements with the same hash can match
+		Map<Integer, List<Pair<Statement, List<Integer>>>> matchingCasesByHash= new HashMap<>();
 
 		for (int i= 0; i < allCasesStatements.size(); i++) {
 			boolean isMatching= false;
 			Statement currentStatement= allCasesStatements.get(i).get(allCasesStatements.get(i).size() - 1);
+			int hash= ASTSemanticHasher.hash(currentStatement);
+			List<Pair<Statement, List<Integer>>> candidates= matchingCasesByHash.get(hash);
 
-			for (Pair<Statement, List<Integer>> pair : matchingCases) {
+			if (candidates == null) {
+				candidates= new ArrayList<>();
+				matchingCasesByHash.put(hash, candidates);
+			}
+
+			for (Pair<Statement, List<Integer>> pair : candidates) {
 				if (ASTNodes.match(matcher, pair.getFirst(), currentStatement)) {
 					pair.getSecond().add(i);
 					isMatching= true;
@@ -136,6 +148,7 @@ public class ObsoleteCommonCodeInIfElseStatementCleanUp extends AbstractCleanUpR
 						new ArrayList<>());
 				newPair.getSecond().add(i);
 				matchingCases.add(newPair);
+				candidates.add(newPair);
 			}
 		}
 
@@ -29,7 +29,6 @@ import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.BlockSubVisitor;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.ConditionalExpression;
@@ -201,10 +200,10 @@ public class ObsoleteIncrementStatementRatherThanIncrementExpressionCleanUp exte
 
 		private boolean maybeExtractIncrement(final Expression visited, final Expression variable, final Statement statement) {
 			SimpleName variableName= ASTNodes.as(variable, SimpleName.class);
-			VarDefinitionsUsesVisitor varDefinitionsUsesVisitor= new VarDefinitionsUsesVisitor((IVariableBinding) variableName.resolveBinding(), statement, true);
+			IVariableBinding variableBinding= (IVariableBinding) variableName.resolveBinding();
 
-			if (varDefinitionsUsesVisitor.getWrites().isEmpty()
-					&& varDefinitionsUsesVisitor.getReads().size() == 1
+			if (cuRewrite.getAnalysis().getWrites(variableBinding, statement).isEmpty()
+					&& cuRewrite.getAnalysis().getReads(variableBinding, statement).size() == 1
 					&& (visited instanceof PrefixExpression || !ASTNodes.fallsThrough(statement))) {
 				extractIncrement(visited, variable, statement);
 
@@ -32,7 +32,6 @@ import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.eclipse.jdt.core.dom.ASTNode;
-import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.Dimension;
 import org.eclipse.jdt.core.dom.FieldAccess;
@@ -53,29 +52,6 @@ import org.eclipse.text.edits.TextEditGroup;
 
 /** See {@link #getDescription()} method. */
 public class ObsoleteLocalVariableRatherThanFieldCleanUp extends AbstractCleanUpRule {
-	private static final class FieldUseVisitor extends ASTVisitor {
-		private final SimpleName field;
-		private final List<SimpleName> occurrences= new ArrayList<>();
-
-		private FieldUseVisitor(final SimpleName field) {
-			this.field= field;
-		}
-
-		@Override
-		public boolean visit(final SimpleName aVariable) {
-			if (field != aVariable
-					&& ASTNodes.isSameVariable(field, aVariable)) {
-				occurrences.add(aVariable);
-			}
-
-			return true;
-		}
-
-		private List<SimpleName> getOccurrences() {
-			return occurrences;
-		}
-	}
-
 	@Override
 	public String getName() {
 		return MultiFixMessages.ObsoleteLocalVariableRatherThanFieldCleanUp_name;
@@ -125,9 +101,9 @@ public class ObsoleteLocalVariableRatherThanFieldCleanUp extends AbstractCleanUp
 			return true;
 		}
 
-		FieldUseVisitor fieldUseVisitor= new FieldUseVisitor(fragment.getName());
-		visited.accept(fieldUseVisitor);
-		List<SimpleName> occurrences= fieldUseVisitor.getOccurrences();
+		List<SimpleName> occurrences= new ArrayList<>(
+				cuRewrite.getAnalysis().getVariableOccurrences(visited).getOccurrences(fragment.resolveBinding()));
+		occurrences.remove(fragment.getName());
 
 		MethodDeclaration oneMethodDeclaration= null;
 
@@ -34,7 +34,6 @@ import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.BlockSubVisitor;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.Block;
 import org.eclipse.jdt.core.dom.ConditionalExpression;
@@ -173,10 +172,7 @@ public class ObsoleteNoAssignmentInIfConditionCleanUp extends AbstractCleanUpRul
 				}
 
 				for (Expression expression : evaluatedExpression) {
-					VarDefinitionsUsesVisitor variableUseVisitor= new VarDefinitionsUsesVisitor(variableBinding,
-							expression, true);
-
-					if (!variableUseVisitor.getReads().isEmpty()) {
+					if (!cuRewrite.getAnalysis().getReads(variableBinding, expression).isEmpty()) {
 						return true;
 					}
 				}
@@ -27,7 +27,6 @@ package org.autorefactor.jdt.internal.ui.fix;
 
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.Assignment;
 import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.SimpleName;
@@ -66,7 +65,7 @@ public class ObsoleteRemoveOverriddenAssignmentCleanUp extends AbstractCleanUpRu
 			boolean isOverridden= false;
 
 			while (stmtToInspect != null) {
-				if (!new VarDefinitionsUsesVisitor(variable, stmtToInspect, true).getReads().isEmpty()) {
+				if (!cuRewrite.getAnalysis().getReads(variable, stmtToInspect).isEmpty()) {
 					return true;
 				}
 
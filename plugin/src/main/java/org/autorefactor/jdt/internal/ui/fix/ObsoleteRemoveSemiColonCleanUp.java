@@ -34,7 +34,6 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.autorefactor.jdt.core.dom.ASTRewrite;
-import org.autorefactor.jdt.internal.corext.dom.ASTComments;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.SourceLocation;
 import org.autorefactor.util.NotImplementedException;
@@ -191,7 +190,7 @@ public class ObsoleteRemoveSemiColonCleanUp extends AbstractCleanUpRule {
 
 	private List<Comment> filterCommentsInRange(final int start, final int end, final ASTNode root) {
 		if (root instanceof CompilationUnit) {
-			return ASTComments.filterCommentsInRange(start, end, (CompilationUnit) root);
+			return cuRewrite.getCommentIndex().getCommentsInRange(start, end);
 		}
 
 		return Collections.emptyList();
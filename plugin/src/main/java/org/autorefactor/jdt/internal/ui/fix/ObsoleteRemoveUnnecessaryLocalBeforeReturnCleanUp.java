@@ -30,7 +30,6 @@ import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.BlockSubVisitor;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ArrayInitializer;
 import org.eclipse.jdt.core.dom.ArrayType;
@@ -123,9 +122,7 @@ public class ObsoleteRemoveUnnecessaryLocalBeforeReturnCleanUp extends AbstractC
 			}
 
 			if (tryStatement.getFinally() != null) {
-				VarDefinitionsUsesVisitor variableUseVisitor= new VarDefinitionsUsesVisitor(
-				varToSearch, tryStatement.getFinally(), true);
-				if (!variableUseVisitor.getReads().isEmpty()) {
+				if (!cuRewrite.getAnalysis().getReads(varToSearch, tryStatement.getFinally()).isEmpty()) {
 					return true;
 				}
 			}
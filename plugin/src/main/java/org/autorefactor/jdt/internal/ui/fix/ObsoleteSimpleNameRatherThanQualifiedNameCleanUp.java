@@ -28,7 +28,6 @@ package org.autorefactor.jdt.internal.ui.fix;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -695,7 +694,7 @@ public class ObsoleteSimpleNameRatherThanQualifiedNameCleanUp extends AbstractCl
 
 	@Override
 	public boolean visit(final Initializer visited) {
-		Set<SimpleName> localVars= ASTNodes.getLocalVariableIdentifiers(visited.getBody(), true);
+		Set<SimpleName> localVars= cuRewrite.getAnalysis().getLocalVariableIdentifiers(visited);
 		return maybeReplaceFqnsWithSimpleNames(visited.getBody(), localVars);
 	}
 
@@ -714,12 +713,7 @@ public class ObsoleteSimpleNameRatherThanQualifiedNameCleanUp extends AbstractCl
 		}
 
 		// Method body
-		Set<SimpleName> localIdentifiers= new HashSet<>();
-		for (SingleVariableDeclaration localParameter : (List<SingleVariableDeclaration>) visited.parameters()) {
-			localIdentifiers.add(localParameter.getName());
-		}
-		localIdentifiers.addAll(ASTNodes.getLocalVariableIdentifiers(visited.getBody(), true));
-
+		Set<SimpleName> localIdentifiers= cuRewrite.getAnalysis().getLocalVariableIdentifiers(visited);
 		return maybeReplaceFqnsWithSimpleNames(visited.getBody(), localIdentifiers);
 	}
 
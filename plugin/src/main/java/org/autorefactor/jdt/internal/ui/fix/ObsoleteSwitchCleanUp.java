@@ -37,6 +37,7 @@ import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTMatcherSameVariablesAndMethods;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
+import org.autorefactor.jdt.internal.corext.dom.ASTSemanticHasher;
 import org.autorefactor.jdt.internal.corext.dom.BlockSubVisitor;
 import org.autorefactor.jdt.internal.corext.dom.FinderVisitor;
 import org.autorefactor.util.NotImplementedException;
@@ -477,6 +478,11 @@ public class ObsoleteSwitchCleanUp extends AbstractCleanUpRule {
 	@Override
 	public boolean visit(final SwitchStatement node) {
 		List<SwitchCaseSection> switchStructure= getSwitchStructure(node);
+		int[] codeHashes= new int[switchStructure.size()];
+
+		for (int i= 0; i < switchStructure.size(); i++) {
+			codeHashes[i]= ASTSemanticHasher.hash(switchStructure.get(i).statements);
+		}
 
 		for (int referenceIndex= 0; referenceIndex < switchStructure.size() - 1; referenceIndex++) {
 			SwitchCaseSection referenceCase= switchStructure.get(referenceIndex);
@@ -488,7 +494,8 @@ public class ObsoleteSwitchCleanUp extends AbstractCleanUpRule {
 			for (int comparedIndex= referenceIndex + 1; comparedIndex < switchStructure.size(); comparedIndex++) {
 				SwitchCaseSection comparedCase= switchStructure.get(comparedIndex);
 
-				if (referenceCase.hasSameCode(comparedCase)) {
+				// Sections with different hashes can not match
+				if (codeHashes[referenceIndex] == codeHashes[comparedIndex] && referenceCase.hasSameCode(comparedCase)) {
 					if (!previousSectionFallsthrough(switchStructure, comparedIndex)) {
 						mergeCases(Merge.AFTER_SWITCH_CASES, referenceCase, comparedCase);
 						return false;
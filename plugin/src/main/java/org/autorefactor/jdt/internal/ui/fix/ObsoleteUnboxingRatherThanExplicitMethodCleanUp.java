@@ -33,7 +33,7 @@ import org.eclipse.jdt.core.dom.MethodInvocation;
 import org.eclipse.text.edits.TextEditGroup;
 
 /** See {@link #getDescription()} method. */
-public class ObsoleteUnboxingRatherThanExplicitMethodCleanUp extends AbstractCleanUpRule {
+public class ObsoleteUnboxingRatherThanExplicitMethodCleanUp extends AbstractCleanUpRule implements MethodSignatureRule {
 	@Override
 	public String getName() {
 		return MultiFixMessages.ObsoleteUnboxingRatherThanExplicitMethodCleanUp_name;
@@ -54,6 +54,18 @@ public class ObsoleteUnboxingRatherThanExplicitMethodCleanUp extends AbstractCle
 		return javaSeRelease.getMinorVersion() >= 5;
 	}
 
+	@Override
+	public void registerMethodSignatures(final MethodSignatureRegistry registry) {
+		registry.register(this, Boolean.class.getCanonicalName(), "booleanValue"); //$NON-NLS-1$
+		registry.register(this, Byte.class.getCanonicalName(), "byteValue"); //$NON-NLS-1$
+		registry.register(this, Character.class.getCanonicalName(), "charValue"); //$NON-NLS-1$
+		registry.register(this, Short.class.getCanonicalName(), "shortValue"); //$NON-NLS-1$
+		registry.register(this, Integer.class.getCanonicalName(), "intValue"); //$NON-NLS-1$
+		registry.register(this, Long.class.getCanonicalName(), "longValue"); //$NON-NLS-1$
+		registry.register(this, Float.class.getCanonicalName(), "floatValue"); //$NON-NLS-1$
+		registry.register(this, Double.class.getCanonicalName(), "doubleValue"); //$NON-NLS-1$
+	}
+
 	@Override
 	public boolean visit(final MethodInvocation node) {
 		if (node.getExpression() != null
@@ -32,7 +32,6 @@ import java.util.List;
 import java.util.Set;
 
 import org.autorefactor.jdt.core.dom.ASTRewrite;
-import org.autorefactor.jdt.internal.corext.dom.ASTComments;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.SourceLocation;
@@ -121,9 +120,9 @@ public class RemoveUselessBlockCleanUp extends AbstractCleanUpRule {
 			int stmtStartPosition = statements.isEmpty()
 					? SourceLocation.getEndPosition(visited) - 1
 					: statements.get(0).getStartPosition();
-			List<Comment> leadingComments = ASTComments.filterCommentsInRange(
+			List<Comment> leadingComments = cuRewrite.getCommentIndex().getCommentsInRange(
 					visited.getStartPosition() + 1,
-					stmtStartPosition, cu);
+					stmtStartPosition);
 
 			try {
 				if (!leadingComments.isEmpty()) {
@@ -26,13 +26,13 @@
 package org.autorefactor.jdt.internal.ui.fix;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
+import org.autorefactor.jdt.internal.corext.refactoring.structure.MethodReferenceIndex;
 import org.autorefactor.util.UnhandledException;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.dom.Expression;
 import org.eclipse.jdt.core.dom.IAnnotationBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
@@ -44,12 +44,6 @@ import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.SingleVariableDeclaration;
 import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.SuperMethodInvocation;
-import org.eclipse.jdt.core.search.IJavaSearchConstants;
-import org.eclipse.jdt.core.search.SearchEngine;
-import org.eclipse.jdt.core.search.SearchMatch;
-import org.eclipse.jdt.core.search.SearchParticipant;
-import org.eclipse.jdt.core.search.SearchPattern;
-import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.text.edits.TextEditGroup;
 
 /**
@@ -126,25 +120,18 @@ public class SuperCallRatherThanUselessOverridingCleanUp extends AbstractCleanUp
 		return true;
 	}
 
-	/** This method is extremely expensive. */
+	/** The first call for a package parses the whole package. */
 	private boolean isMethodUsedInItsPackage(final IMethodBinding methodBinding, final MethodDeclaration visited) {
-		IPackageBinding methodPackage= methodBinding.getDeclaringClass().getPackage();
+		if (cuRewrite.getAnalysis().getReferencedMethodKeys().contains(methodBinding.getMethodDeclaration().getKey())) {
+			return true;
+		}
 
-		final AtomicBoolean methodIsUsedInPackage= new AtomicBoolean(false);
-		SearchRequestor requestor= new SearchRequestor() {
-			@Override
-			public void acceptSearchMatch(final SearchMatch match) {
-				methodIsUsedInPackage.lazySet(true);
-			}
-		};
+		IPackageBinding methodPackage= methodBinding.getDeclaringClass().getPackage();
 
 		try {
-			SearchEngine searchEngine= new SearchEngine();
-			searchEngine.search(SearchPattern.createPattern(methodBinding.getJavaElement(), IJavaSearchConstants.REFERENCES, SearchPattern.R_EXACT_MATCH),
-					new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() },
-					SearchEngine.createJavaSearchScope(new IJavaElement[] { methodPackage.getJavaElement() }),
-					requestor, cuRewrite.getProgressMonitor());
-			return methodIsUsedInPackage.get();
+			return MethodReferenceIndex.getInstance().isReferencedInPackage(methodBinding,
+					(IPackageFragment) methodPackage.getJavaElement(), cuRewrite.getCompilationUnit(),
+					cuRewrite.getProgressMonitor());
 		} catch (CoreException e) {
 			throw new UnhandledException(visited, e);
 		}
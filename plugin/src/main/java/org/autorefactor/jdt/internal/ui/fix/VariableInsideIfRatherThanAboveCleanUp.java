@@ -31,9 +31,9 @@ import org.autorefactor.jdt.core.dom.ASTRewrite;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodeFactory;
 import org.autorefactor.jdt.internal.corext.dom.ASTNodes;
 import org.autorefactor.jdt.internal.corext.dom.BlockSubVisitor;
-import org.autorefactor.jdt.internal.corext.dom.VarDefinitionsUsesVisitor;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.Block;
+import org.eclipse.jdt.core.dom.IVariableBinding;
 import org.eclipse.jdt.core.dom.IfStatement;
 import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.VariableDeclarationFragment;
@@ -98,9 +98,9 @@ public class VariableInsideIfRatherThanAboveCleanUp extends AbstractCleanUpRule
 		}
 
 		private boolean isVarUsed(final VariableDeclarationFragment variable, final ASTNode astNode) {
-			VarDefinitionsUsesVisitor varOccurrenceVisitor= new VarDefinitionsUsesVisitor(variable.resolveBinding(),
-					astNode, true);
-			return !varOccurrenceVisitor.getWrites().isEmpty() || !varOccurrenceVisitor.getReads().isEmpty();
+			IVariableBinding variableBinding= variable.resolveBinding();
+			return !cuRewrite.getAnalysis().getWrites(variableBinding, astNode).isEmpty()
+					|| !cuRewrite.getAnalysis().getReads(variableBinding, astNode).isEmpty();
 		}
 
 		private VariableDeclarationFragment getVariable(final Statement variableAssignment) {
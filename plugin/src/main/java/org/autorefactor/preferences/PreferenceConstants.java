@@ -28,7 +28,19 @@ package org.autorefactor.preferences;
 /** Interface holding preference constants. */
 public enum PreferenceConstants {
 	/** Preference that turns debug mode on or off. */
-	DEBUG_MODE_ON("debug_mode_on", "Enable debug mode (for developers)", Boolean.FALSE); //$NON-NLS-1$ //$NON-NLS-2$
+	DEBUG_MODE_ON("debug_mode_on", "Enable debug mode (for developers)", Boolean.FALSE), //$NON-NLS-1$ //$NON-NLS-2$
+	/** Preference that only revisits the code changed by the previous pass. */
+	INCREMENTAL_MODE_ON("incremental_mode_on", "Only revisit the code changed by the previous pass", Boolean.FALSE), //$NON-NLS-1$ //$NON-NLS-2$
+	/** Preference that limits the time spent by the save action on its extra passes. */
+	SAVE_ACTION_TIME_BUDGET("save_action_time_budget", "Time budget of the save action for its extra passes (in milliseconds)", 100), //$NON-NLS-1$ //$NON-NLS-2$
+	/** Preference that limits the number of files refactored in parallel. */
+	MAX_PARALLEL_WORKERS("max_parallel_workers", "Maximum number of files refactored in parallel (0 for one per processor)", 0), //$NON-NLS-1$ //$NON-NLS-2$
+	/** Preference that skips the files left unchanged by a previous run. */
+	CLEAN_INDEX_ON("clean_index_on", "Skip the files left unchanged by a previous run with the same rules", Boolean.FALSE), //$NON-NLS-1$ //$NON-NLS-2$
+	/** Preference that measures the time spent by each rule and each phase. */
+	PROFILING_ON("profiling_on", "Measure the time spent by each rule and each phase (for developers)", Boolean.FALSE), //$NON-NLS-1$ //$NON-NLS-2$
+	/** Preference that lets several rules change disjoint code in the same pass. */
+	DISJOINT_EDITS_MODE_ON("disjoint_edits_mode_on", "Let several rules change disjoint code in the same pass", Boolean.FALSE); //$NON-NLS-1$ //$NON-NLS-2$
 
 	/** TODO use this for preferences initialization. */
 	private static final String JDT_ALWAYS_USE_THIS_FOR_NON_STATIC_METHOD_ACCESS= "cleanup.always_use_this_for_non_static_method_access"; //$NON-NLS-1$
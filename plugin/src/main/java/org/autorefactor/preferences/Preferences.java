@@ -36,6 +36,53 @@ public interface Preferences {
 	 */
 	boolean debugModeOn();
 
+	/**
+	 * Returns whether incremental mode is on.
+	 *
+	 * @return true if incremental mode is on, false otherwise.
+	 */
+	boolean incrementalModeOn();
+
+	/**
+	 * Returns the time the save action may spend on the passes following the
+	 * first one.
+	 *
+	 * @return the time budget of the save action, in milliseconds.
+	 */
+	int saveActionTimeBudget();
+
+	/**
+	 * Returns the maximum number of files refactored in parallel.
+	 *
+	 * @return the maximum number of files refactored in parallel, 0 for one per
+	 *         processor.
+	 */
+	int maxParallelWorkers();
+
+	/**
+	 * Returns whether the files left unchanged by a previous run are skipped.
+	 *
+	 * @return true if the files left unchanged by a previous run are skipped,
+	 *         false otherwise.
+	 */
+	boolean cleanIndexOn();
+
+	/**
+	 * Returns whether the time spent by each rule and each phase is measured.
+	 *
+	 * @return true if the time spent by each rule and each phase is measured,
+	 *         false otherwise.
+	 */
+	boolean profilingOn();
+
+	/**
+	 * Returns whether several rules may change disjoint code in the same pass.
+	 *
+	 * @return true if several rules may change disjoint code in the same pass,
+	 *         false otherwise.
+	 */
+	boolean disjointEditsModeOn();
+
 	/**
 	 * Returns whether this cleanup rule is on.
 	 *